@@ -7,7 +7,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "questions")
+@Table(name = "chat_messages", indexes = @Index(name = "idx_chat_messages_room_seq", columnList = "room_id, seq"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -16,9 +16,11 @@ import java.time.Instant;
 public class ChatMessage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private int id;
+    private Long id;
+    private Long seq;
     private Long userId;
     private Long roomId;
+    @Column(length = 500)
     private String msg;
     @CreationTimestamp
     private Instant createdAt;
@@ -7,7 +7,8 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "multiplayer_attempts")
+@Table(name = "multiplayer_attempts", uniqueConstraints =
+        @UniqueConstraint(columnNames = {"player_id", "multiplayer_question_id"}))
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -26,10 +26,12 @@ public class MultiplayerQuestion {
     private Question question;
 
     private int roundNumber; // Which round this question belongs to
-    private Instant sentAt;
+    private Instant sentAt; // When the broadcast went out, stamped by the game engine
 
     @PrePersist
     public void prePersist() {
-        this.sentAt = Instant.now();
+        if (this.sentAt == null) {
+            this.sentAt = Instant.now();
+        }
     }
 }
\ No newline at end of file
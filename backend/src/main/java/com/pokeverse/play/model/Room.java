@@ -61,6 +61,6 @@ public class Room {
     }
 
     public boolean hasPlayer(Long userId) {
-        return players.stream().anyMatch(p -> p.getUserId()==userId);
+        return players.stream().anyMatch(p -> userId.equals(p.getUserId()));
     }
 }
\ No newline at end of file
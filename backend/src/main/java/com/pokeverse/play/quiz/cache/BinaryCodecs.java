@@ -0,0 +1,70 @@
+package com.pokeverse.play.quiz.cache;
+
+import java.io.*;
+import java.time.Instant;
+
+/**
+ * Framing shared by the binary codecs: every record starts with its codec's schema version
+ * byte, and bytes of another version, or ones that end early or hold an unknown ordinal,
+ * decode to null so the caller treats them as a cache miss.
+ */
+final class BinaryCodecs {
+
+    interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private BinaryCodecs() {
+    }
+
+    static byte[] encode(byte version, int sizeHint, Writer writer) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(sizeHint);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(version);
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    static <T> T decode(byte version, byte[] bytes, Reader<T> reader) {
+        if (bytes == null || bytes.length == 0 || bytes[0] != version) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            return reader.read(in);
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    // Nullable string: presence flag then modified UTF-8
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // Nullable instant: presence flag then seconds and nanos, so it reads back exactly as written
+    static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+}
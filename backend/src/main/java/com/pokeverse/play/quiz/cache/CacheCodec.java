@@ -0,0 +1,9 @@
+package com.pokeverse.play.quiz.cache;
+
+// Binary form of a cached value; decode returns null for bytes it doesn't understand
+public interface CacheCodec<T> {
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+}
@@ -0,0 +1,67 @@
+package com.pokeverse.play.quiz.cache;
+
+import com.pokeverse.play.model.Room;
+import com.pokeverse.play.model.RoomPlayer;
+import com.pokeverse.play.model.Status;
+
+import java.util.List;
+
+/**
+ * What the room cache holds: the room's own columns and its roster, nothing lazy and
+ * no entity back references. Immutable, so a near-cached instance can be shared freely.
+ */
+public record CachedRoom(
+        long id,
+        long hostId,
+        String name,
+        int totalRounds,
+        int maxPlayers,
+        int currentRound,
+        Status status,
+        List<Player> players
+) {
+
+    public record Player(long id, long userId, String name, String avatar, int score) {
+    }
+
+    public static CachedRoom from(Room room) {
+        List<Player> players = room.getPlayers().stream()
+                .map(CachedRoom::player)
+                .toList();
+        return new CachedRoom(
+                room.getId(),
+                room.getHostId(),
+                room.getName(),
+                room.getTotalRounds(),
+                room.getMaxPlayers(),
+                room.getCurrentRound(),
+                room.getStatus(),
+                players
+        );
+    }
+
+    public CachedRoom withStatus(Status status) {
+        return new CachedRoom(id, hostId, name, totalRounds, maxPlayers, currentRound, status, players);
+    }
+
+    public boolean isHost(long userId) {
+        return hostId == userId;
+    }
+
+    public boolean isFull() {
+        return players.size() >= maxPlayers;
+    }
+
+    public boolean hasPlayer(long userId) {
+        for (Player player : players) {
+            if (player.userId() == userId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Player player(RoomPlayer player) {
+        return new Player(player.getId(), player.getUserId(), player.getName(), player.getAvatar(), player.getScore());
+    }
+}
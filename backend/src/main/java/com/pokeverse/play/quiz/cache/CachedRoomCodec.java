@@ -0,0 +1,66 @@
+package com.pokeverse.play.quiz.cache;
+
+import com.pokeverse.play.model.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pokeverse.play.quiz.cache.BinaryCodecs.readString;
+import static com.pokeverse.play.quiz.cache.BinaryCodecs.writeString;
+
+/**
+ * Binary layout of a {@link CachedRoom}, framed by {@link BinaryCodecs}: the room's fields,
+ * the status as its ordinal, then the player count followed by the players back to back.
+ * No field names or type headers are written; bumping {@link #VERSION} after a layout
+ * change just makes rooms reload from the database once.
+ */
+public final class CachedRoomCodec implements CacheCodec<CachedRoom> {
+
+    public static final CachedRoomCodec INSTANCE = new CachedRoomCodec();
+
+    private static final byte VERSION = 1;
+    private static final Status[] STATUSES = Status.values();
+
+    private CachedRoomCodec() {
+    }
+
+    @Override
+    public byte[] encode(CachedRoom room) {
+        return BinaryCodecs.encode(VERSION, 64 + room.players().size() * 48, out -> {
+            out.writeLong(room.id());
+            out.writeLong(room.hostId());
+            writeString(out, room.name());
+            out.writeInt(room.totalRounds());
+            out.writeInt(room.maxPlayers());
+            out.writeInt(room.currentRound());
+            out.writeByte(room.status().ordinal());
+            out.writeShort(room.players().size());
+            for (CachedRoom.Player player : room.players()) {
+                out.writeLong(player.id());
+                out.writeLong(player.userId());
+                writeString(out, player.name());
+                writeString(out, player.avatar());
+                out.writeInt(player.score());
+            }
+        });
+    }
+
+    @Override
+    public CachedRoom decode(byte[] bytes) {
+        return BinaryCodecs.decode(VERSION, bytes, in -> {
+            long id = in.readLong();
+            long hostId = in.readLong();
+            String name = readString(in);
+            int totalRounds = in.readInt();
+            int maxPlayers = in.readInt();
+            int currentRound = in.readInt();
+            Status status = STATUSES[in.readUnsignedByte()];
+            int count = in.readUnsignedShort();
+            List<CachedRoom.Player> players = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                players.add(new CachedRoom.Player(in.readLong(), in.readLong(), readString(in), readString(in), in.readInt()));
+            }
+            return new CachedRoom(id, hostId, name, totalRounds, maxPlayers, currentRound, status, List.copyOf(players));
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.pokeverse.play.quiz.cache;
+
+import java.nio.charset.StandardCharsets;
+
+// A long as its decimal string, the same bytes a Lua script or redis-cli would write
+public final class DecimalLongCodec implements CacheCodec<Long> {
+
+    public static final DecimalLongCodec INSTANCE = new DecimalLongCodec();
+
+    private DecimalLongCodec() {
+    }
+
+    @Override
+    public byte[] encode(Long value) {
+        return value.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public Long decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
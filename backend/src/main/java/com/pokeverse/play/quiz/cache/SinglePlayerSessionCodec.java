@@ -0,0 +1,95 @@
+package com.pokeverse.play.quiz.cache;
+
+import com.pokeverse.play.model.Question;
+import com.pokeverse.play.model.SinglePlayerAttempts;
+import com.pokeverse.play.model.SinglePlayerSession;
+import com.pokeverse.play.model.Status;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pokeverse.play.quiz.cache.BinaryCodecs.readInstant;
+import static com.pokeverse.play.quiz.cache.BinaryCodecs.readString;
+import static com.pokeverse.play.quiz.cache.BinaryCodecs.writeInstant;
+import static com.pokeverse.play.quiz.cache.BinaryCodecs.writeString;
+
+/**
+ * Binary layout of an in-progress {@link SinglePlayerSession}, framed by {@link BinaryCodecs}:
+ * the session's fields, then the attempts back to back with their question reduced to its id.
+ * Decoding builds a detached session whose questions are id-only stubs, enough to match
+ * answers and to merge the session back into the database.
+ */
+public final class SinglePlayerSessionCodec implements CacheCodec<SinglePlayerSession> {
+
+    public static final SinglePlayerSessionCodec INSTANCE = new SinglePlayerSessionCodec();
+
+    private static final byte VERSION = 1;
+    private static final Status[] STATUSES = Status.values();
+
+    private SinglePlayerSessionCodec() {
+    }
+
+    @Override
+    public byte[] encode(SinglePlayerSession session) {
+        return BinaryCodecs.encode(VERSION, 96 + session.getAttempts().size() * 48, out -> {
+            out.writeLong(session.getId());
+            out.writeLong(session.getUserId());
+            writeString(out, session.getDifficulty());
+            writeString(out, session.getRegion());
+            out.writeInt(session.getRounds());
+            out.writeInt(session.getCurrentRound());
+            out.writeByte(session.getStatus() == null ? -1 : session.getStatus().ordinal());
+            writeInstant(out, session.getStartedAt());
+            writeInstant(out, session.getCompletedAt());
+            writeInstant(out, session.getCreatedAt());
+            out.writeShort(session.getAttempts().size());
+            for (SinglePlayerAttempts attempt : session.getAttempts()) {
+                out.writeLong(attempt.getId() == null ? -1 : attempt.getId());
+                out.writeLong(attempt.getQuestion().getId());
+                writeString(out, attempt.getSelectedAnswer());
+                out.writeBoolean(attempt.isCorrect());
+                writeInstant(out, attempt.getAnsweredAt());
+            }
+        });
+    }
+
+    @Override
+    public SinglePlayerSession decode(byte[] bytes) {
+        return BinaryCodecs.decode(VERSION, bytes, in -> {
+            SinglePlayerSession session = SinglePlayerSession.builder()
+                    .id(in.readLong())
+                    .userId(in.readLong())
+                    .difficulty(readString(in))
+                    .region(readString(in))
+                    .rounds(in.readInt())
+                    .currentRound(in.readInt())
+                    .status(readStatus(in))
+                    .startedAt(readInstant(in))
+                    .completedAt(readInstant(in))
+                    .createdAt(readInstant(in))
+                    .build();
+            int count = in.readUnsignedShort();
+            List<SinglePlayerAttempts> attempts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                attempts.add(SinglePlayerAttempts.builder()
+                        .id(id < 0 ? null : id)
+                        .session(session)
+                        .question(Question.builder().id(in.readLong()).build())
+                        .selectedAnswer(readString(in))
+                        .isCorrect(in.readBoolean())
+                        .answeredAt(readInstant(in))
+                        .build());
+            }
+            session.setAttempts(attempts);
+            return session;
+        });
+    }
+
+    private static Status readStatus(DataInputStream in) throws IOException {
+        byte ordinal = in.readByte();
+        return ordinal < 0 ? null : STATUSES[ordinal];
+    }
+}
@@ -0,0 +1,215 @@
+package com.pokeverse.play.quiz.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.pokeverse.play.model.SinglePlayerSession;
+import com.pokeverse.play.repository.SinglePlayerSessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-player sessions shared by every node. A session is kept as its
+ * {@link SinglePlayerSessionCodec} bytes in Redis next to a version that every write bumps,
+ * and, on the nodes that touched it, in a local tier bounded by {@code local-max-bytes}
+ * rather than an entry count. A local copy is only served while its version is still the
+ * one in Redis, so a session that moved to another node and back is never stale. Callers
+ * always get a fresh detached copy, so mutating it and calling {@link #put} is safe.
+ * <p>
+ * Redis and the local tier are caches only: every answer is saved to the database before
+ * the session is put here, and a session that misses both is reloaded from there.
+ */
+@Slf4j
+@Component
+public class SinglePlayerSessionStore {
+
+    private static final String KEY_PREFIX = "sp_session:";
+
+    // Bytes and version share a hash tag, so the scripts stay on one cluster slot
+    private static final RedisScript<Long> STORE = RedisScript.of("""
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            local version = redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            return version""", Long.class);
+
+    // Current version, pushing both keys' expiry out like the local expire-after-access
+    private static final RedisScript<Long> VERSION = RedisScript.of("""
+            local version = redis.call('GET', KEYS[2])
+            if not version or redis.call('PEXPIRE', KEYS[1], ARGV[1]) == 0 then
+                return false
+            end
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return tonumber(version)""", Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> FETCH = RedisScript.of("""
+            local version = redis.call('GET', KEYS[2])
+            local bytes = redis.call('GET', KEYS[1])
+            if not version or not bytes then
+                return {}
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return {version, bytes}""", List.class);
+
+    private record LocalCopy(long version, byte[] bytes) {
+    }
+
+    private final RedisTemplate<String, byte[]> bytesRedisTemplate;
+    private final SinglePlayerSessionRepository sessionRepository;
+    private final TransactionTemplate readTransaction;
+    private final byte[] ttlMillis;
+    private final Cache<Long, LocalCopy> local;
+    private final AtomicLong localBytes = new AtomicLong();
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter databaseLoads;
+    private final Counter misses;
+    private final Counter staleLocal;
+
+    public SinglePlayerSessionStore(@Qualifier("bytesRedisTemplate") RedisTemplate<String, byte[]> bytesRedisTemplate,
+                                    SinglePlayerSessionRepository sessionRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${pokeverse.sessions.local-max-bytes:64MB}") DataSize localMaxBytes,
+                                    @Value("${pokeverse.sessions.ttl:30m}") Duration ttl) {
+        this.bytesRedisTemplate = bytesRedisTemplate;
+        this.sessionRepository = sessionRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.ttlMillis = Long.toString(ttl.toMillis()).getBytes(StandardCharsets.US_ASCII);
+        this.local = CacheBuilder.newBuilder()
+                .maximumWeight(localMaxBytes.toBytes())
+                .weigher((Long id, LocalCopy copy) -> copy.bytes().length)
+                .expireAfterAccess(ttl)
+                .removalListener(this::onLocalRemoval)
+                .build();
+
+        this.localHits = meterRegistry.counter("pokeverse.sessions.hits", "tier", "local");
+        this.redisHits = meterRegistry.counter("pokeverse.sessions.hits", "tier", "redis");
+        this.databaseLoads = meterRegistry.counter("pokeverse.sessions.hits", "tier", "database");
+        this.misses = meterRegistry.counter("pokeverse.sessions.misses");
+        this.staleLocal = meterRegistry.counter("pokeverse.sessions.local.stale");
+        meterRegistry.gauge("pokeverse.sessions.local.bytes", localBytes);
+    }
+
+    // Add or update a session
+    public void put(SinglePlayerSession session) {
+        store(session.getId(), SinglePlayerSessionCodec.INSTANCE.encode(session));
+    }
+
+    // Get a session, null if it doesn't exist anywhere
+    public SinglePlayerSession get(Long sessionId) {
+        LocalCopy copy = local.getIfPresent(sessionId);
+        if (copy != null) {
+            if (isCurrent(sessionId, copy)) {
+                localHits.increment();
+                return SinglePlayerSessionCodec.INSTANCE.decode(copy.bytes());
+            }
+            staleLocal.increment();
+            local.invalidate(sessionId);
+        }
+
+        copy = getShared(sessionId);
+        if (copy != null) {
+            redisHits.increment();
+            putLocal(sessionId, copy);
+            return SinglePlayerSessionCodec.INSTANCE.decode(copy.bytes());
+        }
+
+        // Encoded inside the transaction, the attempts are lazy
+        byte[] bytes = readTransaction.execute(status -> sessionRepository.findById(sessionId)
+                .map(SinglePlayerSessionCodec.INSTANCE::encode)
+                .orElse(null));
+        if (bytes == null) {
+            misses.increment();
+            return null;
+        }
+        databaseLoads.increment();
+        store(sessionId, bytes);
+        return SinglePlayerSessionCodec.INSTANCE.decode(bytes);
+    }
+
+    // Remove a session
+    public void remove(Long sessionId) {
+        local.invalidate(sessionId);
+        try {
+            bytesRedisTemplate.delete(keys(sessionId));
+        } catch (Exception e) {
+            log.warn("Could not remove shared session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private void store(Long sessionId, byte[] bytes) {
+        Long version;
+        try {
+            version = bytesRedisTemplate.execute(STORE, keys(sessionId), bytes, ttlMillis);
+        } catch (Exception e) {
+            log.warn("Could not share session {}, it is only held in the database: {}", sessionId, e.getMessage());
+            version = null;
+        }
+        // Without a version the copy can't be validated later, the next read goes to the database
+        if (version == null) {
+            local.invalidate(sessionId);
+            return;
+        }
+        putLocal(sessionId, new LocalCopy(version, bytes));
+    }
+
+    private void putLocal(Long sessionId, LocalCopy copy) {
+        localBytes.addAndGet(copy.bytes().length);
+        local.put(sessionId, copy);
+    }
+
+    private boolean isCurrent(Long sessionId, LocalCopy copy) {
+        try {
+            Long version = bytesRedisTemplate.execute(VERSION, keys(sessionId), ttlMillis);
+            return version != null && version == copy.version();
+        } catch (Exception e) {
+            log.warn("Could not check shared session {}: {}", sessionId, e.getMessage());
+            return false;
+        }
+    }
+
+    private LocalCopy getShared(Long sessionId) {
+        try {
+            @SuppressWarnings("unchecked")
+            List<byte[]> result = bytesRedisTemplate.execute(FETCH, keys(sessionId), ttlMillis);
+            if (result == null || result.size() < 2) {
+                return null;
+            }
+            long version = Long.parseLong(new String(result.get(0), StandardCharsets.US_ASCII));
+            return new LocalCopy(version, result.get(1));
+        } catch (Exception e) {
+            log.warn("Could not read shared session {}: {}", sessionId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void onLocalRemoval(RemovalNotification<Long, LocalCopy> notification) {
+        LocalCopy copy = notification.getValue();
+        if (copy != null) {
+            localBytes.addAndGet(-copy.bytes().length);
+        }
+    }
+
+    private static List<String> keys(Long sessionId) {
+        String key = KEY_PREFIX + "{" + sessionId + "}";
+        return List.of(key, key + ":v");
+    }
+}
@@ -0,0 +1,159 @@
+package com.pokeverse.play.quiz.chat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokeverse.play.model.ChatMessage;
+import com.pokeverse.play.quiz.dto.ChatMessageDto;
+import com.pokeverse.play.quiz.fanout.RelayedFrame;
+import com.pokeverse.play.quiz.utils.EncodedPayload;
+import com.pokeverse.play.quiz.utils.PayloadEncoder;
+import com.pokeverse.play.repository.ChatMessageRepository;
+import com.pokeverse.play.repository.RoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recent chat per room, kept in memory so joining players and history requests don't touch
+ * the database. Each room keeps its last {@code ring-size} messages, and every new
+ * subscription to a room's chat topic is replayed the last {@code replay-size} of them.
+ * <p>
+ * A ring is only created for a room that exists, and starts from the room's latest stored
+ * messages, so a restarted node or one that never saw the room still knows what is older.
+ * Chat sent on other nodes reaches the ring through the fan-out's {@link RelayedFrame} events.
+ */
+@Slf4j
+@Component
+public class ChatHistory {
+
+    private static final Pattern CHAT_TOPIC = Pattern.compile("^/topic/room/(\\d+)/chat$");
+
+    private final Map<Long, ChatRing> rings = new ConcurrentHashMap<>();
+    private final MessageChannel clientOutboundChannel;
+    private final PayloadEncoder payloadEncoder;
+    private final ObjectMapper objectMapper;
+    private final RoomRepository roomRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final int ringSize;
+    private final int replaySize;
+
+    public ChatHistory(@Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                       PayloadEncoder payloadEncoder,
+                       ObjectMapper objectMapper,
+                       RoomRepository roomRepository,
+                       ChatMessageRepository chatMessageRepository,
+                       @Value("${pokeverse.chat.history.ring-size:200}") int ringSize,
+                       @Value("${pokeverse.chat.history.replay-size:50}") int replaySize) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.payloadEncoder = payloadEncoder;
+        this.objectMapper = objectMapper;
+        this.roomRepository = roomRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.ringSize = ringSize;
+        this.replaySize = replaySize;
+    }
+
+    // Null if the room doesn't exist
+    public ChatMessageDto append(long roomId, Long userId, String msg, Instant sentAt) {
+        ChatRing ring = ring(roomId);
+        return ring == null ? null : ring.append(userId, msg, sentAt);
+    }
+
+    public List<ChatMessageDto> before(long roomId, Long cursor, int limit) {
+        ChatRing ring = ring(roomId);
+        return ring == null ? List.of() : ring.before(cursor, limit);
+    }
+
+    // True when the ring alone can't tell whether older messages exist
+    public boolean mayHaveOlder(long roomId) {
+        ChatRing ring = ring(roomId);
+        return ring == null || ring.hasEvicted();
+    }
+
+    public void remove(long roomId) {
+        rings.remove(roomId);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Matcher matcher = CHAT_TOPIC.matcher(destination);
+        if (!matcher.matches()) {
+            return;
+        }
+        ChatRing ring = ring(Long.parseLong(matcher.group(1)));
+        if (ring == null) {
+            return;
+        }
+        for (ChatMessageDto message : ring.latest(replaySize)) {
+            replay(accessor.getSessionId(), accessor.getSubscriptionId(), destination, payloadEncoder.encode(message));
+        }
+    }
+
+    @EventListener
+    public void onRelayed(RelayedFrame frame) {
+        Matcher matcher = CHAT_TOPIC.matcher(frame.destination());
+        if (!matcher.matches()) {
+            return;
+        }
+        // Only rings this node already holds, one seeded later reads the message from the database
+        ChatRing ring = rings.get(Long.parseLong(matcher.group(1)));
+        if (ring == null) {
+            return;
+        }
+        try {
+            ring.insert(objectMapper.readValue(frame.payload().bytes(), ChatMessageDto.class));
+        } catch (IOException e) {
+            log.warn("Dropped an unreadable relayed chat message for {}: {}", frame.destination(), e.getMessage());
+        }
+    }
+
+    // Seeded outside the map's lock, if two callers race the first ring in wins
+    private ChatRing ring(long roomId) {
+        ChatRing ring = rings.get(roomId);
+        if (ring != null) {
+            return ring;
+        }
+        if (!roomRepository.existsById(roomId)) {
+            return null;
+        }
+        List<ChatMessage> stored = chatMessageRepository.findByRoomIdOrderBySeqDesc(roomId, PageRequest.of(0, ringSize));
+        List<ChatMessageDto> oldestFirst = stored.reversed().stream()
+                .map(m -> new ChatMessageDto(m.getSeq(), m.getUserId(), m.getMsg(), m.getCreatedAt()))
+                .toList();
+        ChatRing seeded = new ChatRing(ringSize, oldestFirst, stored.size() == ringSize);
+        ChatRing existing = rings.putIfAbsent(roomId, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    // Straight to the one subscription, the broker would send it to the whole room
+    private void replay(String sessionId, String subscriptionId, String destination, EncodedPayload payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        accessor.setContentType(payload.contentType());
+        accessor.setLeaveMutable(true);
+        clientOutboundChannel.send(MessageBuilder.createMessage(payload.bytes(), accessor.getMessageHeaders()));
+    }
+}
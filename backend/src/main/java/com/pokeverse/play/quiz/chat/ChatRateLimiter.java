@@ -0,0 +1,71 @@
+package com.pokeverse.play.quiz.chat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user token bucket for chat. A user can send {@code burst} messages back to back and
+ * then one every {@code refill-interval}. Buckets refill lazily when they are touched, so
+ * idle users cost nothing but a map entry, and full buckets are swept once the map grows.
+ */
+@Component
+public class ChatRateLimiter {
+
+    private static final int SWEEP_EVERY = 1024;
+
+    private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger acquisitions = new AtomicInteger();
+    private final int burst;
+    private final long refillNanos;
+    private final int maxTrackedUsers;
+
+    public ChatRateLimiter(@Value("${pokeverse.chat.rate-limit.burst:5}") int burst,
+                           @Value("${pokeverse.chat.rate-limit.refill-interval:1s}") Duration refillInterval,
+                           @Value("${pokeverse.chat.rate-limit.max-tracked-users:10000}") int maxTrackedUsers) {
+        this.burst = burst;
+        this.refillNanos = refillInterval.toNanos();
+        this.maxTrackedUsers = maxTrackedUsers;
+    }
+
+    public boolean tryAcquire(long userId) {
+        if (acquisitions.incrementAndGet() % SWEEP_EVERY == 0 && buckets.size() > maxTrackedUsers) {
+            sweep();
+        }
+        return buckets.computeIfAbsent(userId, id -> new TokenBucket()).tryTake();
+    }
+
+    // A bucket that has refilled completely carries no state worth keeping
+    private void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private final class TokenBucket {
+        private double tokens = burst;
+        private long refilledAt = System.nanoTime();
+
+        synchronized boolean tryTake() {
+            refill(System.nanoTime());
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= burst;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(burst, tokens + (double) (now - refilledAt) / refillNanos);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.pokeverse.play.quiz.chat;
+
+import java.time.Instant;
+
+// A chat line that has been broadcast and is waiting to be persisted
+public record ChatRecord(long seq, long userId, long roomId, String msg, Instant sentAt) {
+}
@@ -0,0 +1,103 @@
+package com.pokeverse.play.quiz.chat;
+
+import com.pokeverse.play.quiz.dto.ChatMessageDto;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of a room's most recent chat messages. Sequence numbers are a hybrid
+ * clock: the epoch microsecond of the message, bumped past the previous one when two land
+ * in the same microsecond. They stay monotonic within a room and survive restarts without
+ * asking the database where the last one left off.
+ */
+class ChatRing {
+
+    private final ChatMessageDto[] messages;
+    private int head;
+    private int size;
+    private long lastSeq;
+    private boolean evicted;
+
+    // Starts from what the database already holds, oldest first; older says whether it held more than that
+    ChatRing(int capacity, List<ChatMessageDto> stored, boolean older) {
+        this.messages = new ChatMessageDto[capacity];
+        int skip = Math.max(0, stored.size() - capacity);
+        for (int i = skip; i < stored.size(); i++) {
+            messages[size++] = stored.get(i);
+            lastSeq = Math.max(lastSeq, stored.get(i).seq());
+        }
+        this.evicted = older || skip > 0;
+    }
+
+    synchronized ChatMessageDto append(Long userId, String msg, Instant sentAt) {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, sentAt);
+        lastSeq = Math.max(lastSeq + 1, micros);
+        ChatMessageDto message = new ChatMessageDto(lastSeq, userId, msg, sentAt);
+        messages[(head + size) % messages.length] = message;
+        if (size < messages.length) {
+            size++;
+        } else {
+            head = (head + 1) % messages.length;
+            evicted = true;
+        }
+        return message;
+    }
+
+    // A message sent on another node: kept in seq order, dropped if already held or older than a full ring
+    synchronized boolean insert(ChatMessageDto message) {
+        int index = size;
+        while (index > 0 && at(index - 1).seq() > message.seq()) {
+            index--;
+        }
+        if (index > 0 && at(index - 1).seq() == message.seq()) {
+            return false;
+        }
+        if (size == messages.length) {
+            if (index == 0) {
+                return false;
+            }
+            head = (head + 1) % messages.length;
+            size--;
+            index--;
+            evicted = true;
+        }
+        for (int i = size; i > index; i--) {
+            messages[(head + i) % messages.length] = at(i - 1);
+        }
+        messages[(head + index) % messages.length] = message;
+        size++;
+        // Later local messages still sort after it
+        lastSeq = Math.max(lastSeq, message.seq());
+        return true;
+    }
+
+    // Up to limit messages with seq below the cursor (all when null), oldest first
+    synchronized List<ChatMessageDto> before(Long cursor, int limit) {
+        int end = size;
+        while (end > 0 && cursor != null && at(end - 1).seq() >= cursor) {
+            end--;
+        }
+        int start = Math.max(0, end - limit);
+        List<ChatMessageDto> page = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            page.add(at(i));
+        }
+        return page;
+    }
+
+    synchronized List<ChatMessageDto> latest(int limit) {
+        return before(null, limit);
+    }
+
+    // Whether anything older than the ring's oldest message may exist in the database
+    synchronized boolean hasEvicted() {
+        return evicted;
+    }
+
+    private ChatMessageDto at(int index) {
+        return messages[(head + index) % messages.length];
+    }
+}
@@ -0,0 +1,138 @@
+package com.pokeverse.play.quiz.chat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for chat. Messages are broadcast before they reach this queue and
+ * {@link #enqueue} never waits, so a slow database can only cost chat history, never chat
+ * latency. A single flusher thread writes JDBC batches of up to {@code batch-size} rows.
+ */
+@Slf4j
+@Component
+public class ChatWriteBehindQueue {
+
+    private static final String INSERT_MESSAGE =
+            "INSERT INTO chat_messages (seq, user_id, room_id, msg, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<ChatRecord> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+
+    private final Counter enqueued;
+    private final Counter dropped;
+    private final Counter flushedRecords;
+    private final Counter failedRecords;
+    private final Timer flushTimer;
+
+    private final Thread flusher = new Thread(this::runFlusher, "chat-write-behind");
+    private volatile boolean running = true;
+
+    public ChatWriteBehindQueue(JdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${pokeverse.chat.write-behind.capacity:20000}") int capacity,
+                                @Value("${pokeverse.chat.write-behind.batch-size:500}") int batchSize,
+                                @Value("${pokeverse.chat.write-behind.flush-interval:1s}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+
+        this.enqueued = meterRegistry.counter("pokeverse.chat.enqueued");
+        this.dropped = meterRegistry.counter("pokeverse.chat.dropped");
+        this.flushedRecords = meterRegistry.counter("pokeverse.chat.flushed");
+        this.failedRecords = meterRegistry.counter("pokeverse.chat.failed");
+        this.flushTimer = meterRegistry.timer("pokeverse.chat.flush");
+        Gauge.builder("pokeverse.chat.queue.depth", queue, Collection::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Drops the message from history when the queue is full, it has already been delivered
+    public boolean enqueue(ChatRecord record) {
+        if (queue.offer(record)) {
+            enqueued.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void runFlusher() {
+        List<ChatRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                fill(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Blocks until the batch is full or the flush interval has passed
+    private void fill(List<ChatRecord> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            ChatRecord record = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (record == null) {
+                return;
+            }
+            batch.add(record);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void flush(List<ChatRecord> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (ChatRecord record : batch) {
+            rows.add(new Object[]{record.seq(), record.userId(), record.roomId(), record.msg(), Timestamp.from(record.sentAt())});
+        }
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_MESSAGE, rows);
+            flushedRecords.increment(rows.size());
+        } catch (Exception e) {
+            log.error("Failed to flush {} chat messages: {}", rows.size(), e.getMessage());
+            failedRecords.increment(rows.size());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
@@ -0,0 +1,129 @@
+package com.pokeverse.play.quiz.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Slow-consumer protection for STOMP sessions. Every session gets an
+ * {@link OutboundSessionBuffer} capped at {@code buffer-limit} frames; what happens past
+ * the cap is decided by {@code overflow-policy}. Destinations matching
+ * {@code coalesce-destinations} only ever need their newest frame, so they are the ones
+ * collapsed under {@link OutboundOverflowPolicy#COALESCE}. By default that is the room's
+ * whole-state topics, {@code /scores} and {@code /roster}; a delta stream such as
+ * {@code /members} must never be listed, its frames can't be skipped. When nothing queued
+ * can be collapsed, COALESCE disconnects like DISCONNECT.
+ */
+@Component
+public class OutboundBufferRegistry {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, OutboundSessionBuffer> buffers = new ConcurrentHashMap<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final int bufferLimit;
+    private final OutboundOverflowPolicy policy;
+    private final List<String> coalesceDestinations;
+
+    private final Counter droppedFrames;
+    private final Counter coalescedFrames;
+    private final Counter disconnectedSessions;
+
+    public OutboundBufferRegistry(MeterRegistry meterRegistry,
+                                  @Value("${pokeverse.websocket.outbound.buffer-limit:256}") int bufferLimit,
+                                  @Value("${pokeverse.websocket.outbound.overflow-policy:COALESCE}") OutboundOverflowPolicy policy,
+                                  @Value("${pokeverse.websocket.outbound.coalesce-destinations:/topic/room/*/scores,/topic/room/*/roster}") List<String> coalesceDestinations) {
+        this.bufferLimit = bufferLimit;
+        this.policy = policy;
+        this.coalesceDestinations = coalesceDestinations.stream().filter(d -> !d.isBlank()).toList();
+
+        this.droppedFrames = meterRegistry.counter("pokeverse.websocket.outbound.dropped");
+        this.coalescedFrames = meterRegistry.counter("pokeverse.websocket.outbound.coalesced");
+        this.disconnectedSessions = meterRegistry.counter("pokeverse.websocket.outbound.disconnected");
+        // Aggregates only, a per-session tag would grow without bound
+        Gauge.builder("pokeverse.websocket.outbound.queued", buffers, OutboundBufferRegistry::totalDepth)
+                .register(meterRegistry);
+        Gauge.builder("pokeverse.websocket.outbound.queue.max-depth", buffers, OutboundBufferRegistry::maxDepth)
+                .register(meterRegistry);
+    }
+
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(register(session));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                unregister(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    public int depth(String sessionId) {
+        OutboundSessionBuffer buffer = buffers.get(sessionId);
+        return buffer == null ? 0 : buffer.depth();
+    }
+
+    String coalesceKey(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        for (String pattern : coalesceDestinations) {
+            if (pathMatcher.match(pattern, destination)) {
+                return destination;
+            }
+        }
+        return null;
+    }
+
+    void dropped() {
+        droppedFrames.increment();
+    }
+
+    void coalesced(int frames) {
+        coalescedFrames.increment(frames);
+    }
+
+    void disconnected() {
+        disconnectedSessions.increment();
+    }
+
+    private WebSocketSession register(WebSocketSession session) {
+        OutboundSessionBuffer buffer = new OutboundSessionBuffer(session, this, executor, bufferLimit, policy);
+        buffers.put(session.getId(), buffer);
+        return buffer;
+    }
+
+    private void unregister(String sessionId) {
+        buffers.remove(sessionId);
+    }
+
+    private static double totalDepth(Map<String, OutboundSessionBuffer> buffers) {
+        return buffers.values().stream().mapToInt(OutboundSessionBuffer::depth).sum();
+    }
+
+    private static double maxDepth(Map<String, OutboundSessionBuffer> buffers) {
+        return buffers.values().stream().mapToInt(OutboundSessionBuffer::depth).max().orElse(0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
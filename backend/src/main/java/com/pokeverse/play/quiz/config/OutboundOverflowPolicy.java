@@ -0,0 +1,11 @@
+package com.pokeverse.play.quiz.config;
+
+// What a session's outbound buffer does once it is full
+public enum OutboundOverflowPolicy {
+    // Throw away the incoming frame
+    DROP,
+    // Keep only the newest frame per coalescable destination, disconnect if that frees nothing
+    COALESCE,
+    // Close the session straight away
+    DISCONNECT
+}
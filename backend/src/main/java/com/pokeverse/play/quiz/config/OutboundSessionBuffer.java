@@ -0,0 +1,182 @@
+package com.pokeverse.play.quiz.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded outbound queue in front of one websocket session. Senders only enqueue; a single
+ * drain task does the blocking socket writes, so a stalled client fills its own buffer
+ * instead of holding an outbound channel thread.
+ */
+@Slf4j
+class OutboundSessionBuffer extends WebSocketSessionDecorator {
+
+    private static final String DESTINATION_HEADER = "\ndestination:";
+    // Only the frame headers are scanned for the destination
+    private static final int MAX_HEADER_SCAN = 512;
+
+    private record Pending(WebSocketMessage<?> message, String coalesceKey) {
+    }
+
+    private final OutboundBufferRegistry registry;
+    private final Executor executor;
+    private final int limit;
+    private final OutboundOverflowPolicy policy;
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    OutboundSessionBuffer(WebSocketSession delegate, OutboundBufferRegistry registry, Executor executor,
+                          int limit, OutboundOverflowPolicy policy) {
+        super(delegate);
+        this.registry = registry;
+        this.executor = executor;
+        this.limit = limit;
+        this.policy = policy;
+    }
+
+    int depth() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (closed) {
+            return;
+        }
+        String coalesceKey = registry.coalesceKey(destinationOf(message));
+        boolean overflow = false;
+        synchronized (queue) {
+            if (queue.size() >= limit) {
+                overflow = !relieve(coalesceKey);
+            }
+            if (!overflow) {
+                queue.add(new Pending(message, coalesceKey));
+            }
+        }
+        if (overflow) {
+            if (policy == OutboundOverflowPolicy.DROP) {
+                registry.dropped();
+            } else {
+                disconnect();
+            }
+            return;
+        }
+        scheduleDrain();
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        closed = true;
+        synchronized (queue) {
+            queue.clear();
+        }
+        super.close(status);
+    }
+
+    // Makes room for one more frame under the COALESCE policy; true when it did
+    private boolean relieve(String incomingKey) {
+        if (policy != OutboundOverflowPolicy.COALESCE) {
+            return false;
+        }
+        Set<String> newer = new HashSet<>();
+        if (incomingKey != null) {
+            newer.add(incomingKey);
+        }
+        int before = queue.size();
+        Iterator<Pending> it = queue.descendingIterator();
+        while (it.hasNext()) {
+            String key = it.next().coalesceKey();
+            if (key != null && !newer.add(key)) {
+                it.remove();
+            }
+        }
+        registry.coalesced(before - queue.size());
+        return queue.size() < limit;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Pending next;
+            while (!closed && (next = poll()) != null) {
+                getDelegate().sendMessage(next.message());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Outbound send to session {} failed: {}", getId(), e.getMessage());
+            // Closing the socket as well lets the disconnect reach the broker instead of leaving a zombie
+            closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+        } finally {
+            draining.set(false);
+        }
+        // A frame may have been queued after the last poll but before the flag was cleared
+        if (!closed && depth() > 0) {
+            scheduleDrain();
+        }
+    }
+
+    private Pending poll() {
+        synchronized (queue) {
+            return queue.poll();
+        }
+    }
+
+    private void disconnect() {
+        registry.disconnected();
+        log.warn("Closing slow websocket session {} with {} frames queued", getId(), depth());
+        closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    private void closeQuietly(CloseStatus status) {
+        try {
+            close(status);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to close session {}: {}", getId(), e.getMessage());
+        }
+    }
+
+    static String destinationOf(WebSocketMessage<?> message) {
+        String headers;
+        if (message instanceof TextMessage text) {
+            String payload = text.getPayload();
+            headers = payload.substring(0, Math.min(payload.length(), MAX_HEADER_SCAN));
+        } else if (message instanceof BinaryMessage binary) {
+            ByteBuffer payload = binary.getPayload().duplicate();
+            byte[] head = new byte[Math.min(payload.remaining(), MAX_HEADER_SCAN)];
+            payload.get(head);
+            headers = new String(head, StandardCharsets.UTF_8);
+        } else {
+            return null;
+        }
+        int end = headers.indexOf("\n\n");
+        int start = headers.indexOf(DESTINATION_HEADER);
+        if (start < 0 || (end >= 0 && start > end)) {
+            return null;
+        }
+        start += DESTINATION_HEADER.length();
+        int lineEnd = headers.indexOf('\n', start);
+        return lineEnd < 0 ? null : headers.substring(start, lineEnd);
+    }
+}
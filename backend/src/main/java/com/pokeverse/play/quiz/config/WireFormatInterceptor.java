@@ -0,0 +1,103 @@
+package com.pokeverse.play.quiz.config;
+
+import com.pokeverse.play.quiz.utils.WireFormat;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Per-session wire format negotiation. The format requested on CONNECT is kept in the
+ * session attributes; a binary session's SUBSCRIBE to a room's game topic is rewritten to
+ * the format's own destination, and we count those subscriptions so binary frames are only
+ * encoded for destinations somebody on this node listens to.
+ */
+@Component
+public class WireFormatInterceptor implements ChannelInterceptor {
+
+    public static final String WIRE_FORMAT_HEADER = "x-wire-format";
+    private static final String WIRE_FORMAT_ATTRIBUTE = "wireFormat";
+    private static final Pattern GAME_TOPIC = Pattern.compile("^/topic/room/\\d+/game$");
+
+    // rewritten destination -> local subscriptions
+    private final Map<String, AtomicInteger> binarySubscriptions = new ConcurrentHashMap<>();
+    // sessionId -> subscriptionId -> rewritten destination
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        switch (accessor.getCommand()) {
+            case CONNECT -> onConnect(accessor);
+            case SUBSCRIBE -> onSubscribe(accessor);
+            case UNSUBSCRIBE -> onUnsubscribe(accessor);
+            case DISCONNECT -> onDisconnect(accessor);
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    public boolean hasBinarySubscribers(String destination) {
+        AtomicInteger count = binarySubscriptions.get(destination);
+        return count != null && count.get() > 0;
+    }
+
+    private void onConnect(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes != null) {
+            attributes.put(WIRE_FORMAT_ATTRIBUTE, WireFormat.fromHeader(accessor.getFirstNativeHeader(WIRE_FORMAT_HEADER)));
+        }
+    }
+
+    private void onSubscribe(StompHeaderAccessor accessor) {
+        WireFormat format = formatOf(accessor);
+        String destination = accessor.getDestination();
+        if (format == WireFormat.JSON || destination == null || accessor.getSubscriptionId() == null
+                || !GAME_TOPIC.matcher(destination).matches()) {
+            return;
+        }
+        String rewritten = destination + format.suffix();
+        accessor.setDestination(rewritten);
+        sessionSubscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), rewritten);
+        binarySubscriptions.computeIfAbsent(rewritten, d -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private void onUnsubscribe(StompHeaderAccessor accessor) {
+        Map<String, String> subscriptions = sessionSubscriptions.get(accessor.getSessionId());
+        if (subscriptions != null && accessor.getSubscriptionId() != null) {
+            release(subscriptions.remove(accessor.getSubscriptionId()));
+        }
+    }
+
+    private void onDisconnect(StompHeaderAccessor accessor) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(accessor.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    private void release(String destination) {
+        if (destination == null) {
+            return;
+        }
+        binarySubscriptions.computeIfPresent(destination, (d, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    private static WireFormat formatOf(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Object format = attributes == null ? null : attributes.get(WIRE_FORMAT_ATTRIBUTE);
+        return format instanceof WireFormat wireFormat ? wireFormat : WireFormat.JSON;
+    }
+}
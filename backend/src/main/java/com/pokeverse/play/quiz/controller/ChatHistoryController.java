@@ -0,0 +1,21 @@
+package com.pokeverse.play.quiz.controller;
+
+import com.pokeverse.play.quiz.service.ChatHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/api/quiz/multiplayer/chat")
+public class ChatHistoryController {
+
+    private final ChatHistoryService chatHistoryService;
+
+    @GetMapping("/{roomId}/history")
+    public ResponseEntity<?> getHistory(@PathVariable Long roomId,
+                                        @RequestParam(required = false) Long before,
+                                        @RequestParam(defaultValue = "50") int limit) {
+        return chatHistoryService.getHistory(roomId, before, limit);
+    }
+}
@@ -29,6 +29,16 @@ public class MultiplayerRoomController {
         return roomService.leaveRoom(code, userId);
     }
 
+    @GetMapping("/snapshot")
+    public ResponseEntity<?> getRoomSnapshot(@RequestParam Long code) {
+        return roomService.getRoomSnapshot(code);
+    }
+
+    @GetMapping("/presence")
+    public ResponseEntity<?> getRoomPresence(@RequestParam Long code) {
+        return roomService.getRoomPresence(code);
+    }
+
     @GetMapping("/{roomId}")
     public ResponseEntity<?> getRoom(@PathVariable Long code) {
         return roomService.getMultiplayerRoom(code);
@@ -1,15 +1,17 @@
 package com.pokeverse.play.quiz.controller.websocket;
 
 
-import com.pokeverse.play.model.ChatMessage;
+import com.pokeverse.play.quiz.chat.ChatHistory;
+import com.pokeverse.play.quiz.chat.ChatRateLimiter;
+import com.pokeverse.play.quiz.chat.ChatRecord;
+import com.pokeverse.play.quiz.chat.ChatWriteBehindQueue;
+import com.pokeverse.play.quiz.dto.ChatMessageDto;
 import com.pokeverse.play.quiz.dto.MessageDto;
-import com.pokeverse.play.quiz.utils.ErrorUtil;
-import com.pokeverse.play.repository.ChatMessageRepository;
+import com.pokeverse.play.quiz.utils.WebsocketMessingUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import java.time.Instant;
@@ -17,28 +19,42 @@ import java.time.Instant;
 @Controller
 @RequiredArgsConstructor
 public class ChatController {
-    private final SimpMessagingTemplate messagingTemplate;
-    private final ChatMessageRepository chatMessageRepository;
-    private final ErrorUtil errorUtil;
+    private final WebsocketMessingUtil websocketMessingUtil;
+    private final ChatRateLimiter chatRateLimiter;
+    private final ChatWriteBehindQueue chatWriteBehindQueue;
+    private final ChatHistory chatHistory;
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
 
     @MessageMapping("/chat/{roomId}")
     public void sendMessage(@DestinationVariable Long roomId, @Payload MessageDto msg) {
-        if(msg.msg().isBlank() && msg.msg().isEmpty()){
-            messagingTemplate.convertAndSend("/topic/player/" + msg.userId()+"/error",errorUtil.badRequest("Message can not be empty"));
+        if (msg.userId() == null || msg.userId() <= 0) {
+            return;
+        }
+        if (msg.msg() == null || msg.msg().isBlank()) {
+            websocketMessingUtil.sendError(msg.userId(), "Message can not be empty");
+            return;
+        }
+        if (msg.msg().length() > MAX_MESSAGE_LENGTH) {
+            websocketMessingUtil.sendError(msg.userId(), "Message can not be longer than " + MAX_MESSAGE_LENGTH + " characters");
+            return;
+        }
+        if (roomId <= 0) {
+            websocketMessingUtil.sendError(msg.userId(), "Room ID cannot be negative or zero");
+            return;
         }
-        if(roomId <= 0){
-            messagingTemplate.convertAndSend("/topic/player/" + msg.userId()+"/error",errorUtil.badRequest("Room ID cannot be negative or zero"));
+        if (!chatRateLimiter.tryAcquire(msg.userId())) {
+            websocketMessingUtil.sendError(msg.userId(), "You are sending messages too fast");
+            return;
         }
-        if(msg.userId() <= 0){
-            messagingTemplate.convertAndSend("/topic/player/" + msg.userId()+"/error",errorUtil.badRequest("User ID cannot be negative or zero"));
+        // Deliver first, history is written behind and never holds up the room
+        ChatMessageDto message = chatHistory.append(roomId, msg.userId(), msg.msg(), Instant.now());
+        if (message == null) {
+            websocketMessingUtil.sendError(msg.userId(), "Room not found");
+            return;
         }
-        ChatMessage chatMessage = ChatMessage.builder()
-                .userId(msg.userId())
-                .roomId(roomId)
-                .msg(msg.msg())
-                .build();
-        chatMessageRepository.save(chatMessage);
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/chat", msg);
+        websocketMessingUtil.notifyRoom(roomId, "/chat", message);
+        chatWriteBehindQueue.enqueue(new ChatRecord(message.seq(), msg.userId(), roomId, msg.msg(), message.sentAt()));
     }
 
 }
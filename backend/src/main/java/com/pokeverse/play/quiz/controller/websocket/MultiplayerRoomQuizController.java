@@ -2,6 +2,7 @@
 package com.pokeverse.play.quiz.controller.websocket;
 
 import com.pokeverse.play.quiz.dto.AnswerValidationDto;
+import com.pokeverse.play.quiz.engine.RoomMailboxes;
 import com.pokeverse.play.quiz.service.MultiplayerRoomQuizService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
@@ -14,14 +15,21 @@ import org.springframework.stereotype.Controller;
 public class MultiplayerRoomQuizController {
 
     private final MultiplayerRoomQuizService quizService;
+    private final RoomMailboxes roomMailboxes;
 
     @MessageMapping("/game/start/{roomId}/{hostId}")
     public void startGame(@DestinationVariable Long roomId, @DestinationVariable Long hostId) {
+        // Not on a mailbox yet, those only exist once the game is registered
         quizService.startGame(roomId, hostId);
     }
 
     @MessageMapping("/game/answer")
     public void submitAnswer(@Payload AnswerValidationDto answer) {
-        quizService.validateAnswer(answer);
+        if (answer.roomId() == null) {
+            return;
+        }
+        // Latency is measured from arrival, time spent queued in the mailbox is the server's
+        long receivedAtNanos = System.nanoTime();
+        roomMailboxes.dispatch(answer.roomId(), () -> quizService.validateAnswer(answer, receivedAtNanos));
     }
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+package com.pokeverse.play.quiz.dto;
+
+public record AnswerResultDto(boolean isCorrect, int points, int newScore, long latencyMillis) {
+}
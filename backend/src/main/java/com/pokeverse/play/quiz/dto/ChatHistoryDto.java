@@ -0,0 +1,9 @@
+package com.pokeverse.play.quiz.dto;
+
+import java.util.List;
+
+// Oldest message first; pass nextCursor as "before" to page further back, null when there is nothing older
+public record ChatHistoryDto(
+        List<ChatMessageDto> messages,
+        Long nextCursor
+) {}
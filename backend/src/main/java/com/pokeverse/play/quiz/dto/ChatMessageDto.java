@@ -0,0 +1,10 @@
+package com.pokeverse.play.quiz.dto;
+
+import java.time.Instant;
+
+public record ChatMessageDto(
+        long seq,
+        Long userId,
+        String msg,
+        Instant sentAt
+) {}
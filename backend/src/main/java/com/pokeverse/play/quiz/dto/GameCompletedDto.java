@@ -0,0 +1,6 @@
+package com.pokeverse.play.quiz.dto;
+
+import java.util.List;
+
+public record GameCompletedDto(String message, List<LeaderBoardDto> leaderboard) {
+}
@@ -0,0 +1,4 @@
+package com.pokeverse.play.quiz.dto;
+
+public record GameMessageDto(String message) {
+}
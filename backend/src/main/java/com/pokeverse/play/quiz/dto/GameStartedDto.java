@@ -0,0 +1,4 @@
+package com.pokeverse.play.quiz.dto;
+
+public record GameStartedDto(long roomId, String message) {
+}
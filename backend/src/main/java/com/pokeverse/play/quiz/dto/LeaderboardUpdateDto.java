@@ -0,0 +1,9 @@
+package com.pokeverse.play.quiz.dto;
+
+import java.util.List;
+
+public record LeaderboardUpdateDto(
+        int roundNumber,
+        List<LeaderBoardDto> top,
+        List<RankChangeDto> changes
+) {}
@@ -0,0 +1,4 @@
+package com.pokeverse.play.quiz.dto;
+
+public record PlayerRoundResultDto(long userId, String name, int score, boolean answered, boolean correct) {
+}
@@ -0,0 +1,4 @@
+package com.pokeverse.play.quiz.dto;
+
+public record RankChangeDto(long userId, int rank, int previousRank, int score) {
+}
@@ -0,0 +1,11 @@
+package com.pokeverse.play.quiz.dto;
+
+import java.util.List;
+
+// A change to the room since the previous version, clients apply them in version order
+public record RoomDeltaDto(
+        long roomId,
+        long version,
+        RoomDeltaType type,
+        List<MultiplayerPlayersInRoomDto> players
+) {}
@@ -0,0 +1,8 @@
+package com.pokeverse.play.quiz.dto;
+
+public enum RoomDeltaType {
+    JOIN,
+    LEAVE,
+    SCORE,
+    CLOSED
+}
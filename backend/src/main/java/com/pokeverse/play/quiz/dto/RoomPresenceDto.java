@@ -0,0 +1,7 @@
+package com.pokeverse.play.quiz.dto;
+
+public record RoomPresenceDto(
+        long roomId,
+        int connectedSessions,
+        int connectedUsers
+) {}
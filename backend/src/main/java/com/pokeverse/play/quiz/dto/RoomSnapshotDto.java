@@ -0,0 +1,5 @@
+package com.pokeverse.play.quiz.dto;
+
+// Full room state as of a version, deltas with a higher version apply on top of it
+public record RoomSnapshotDto(long version, MultiplayerRoomCreationDto room) {
+}
@@ -0,0 +1,10 @@
+package com.pokeverse.play.quiz.dto;
+
+// Answer latency of one round as measured by the server, in milliseconds
+public record RoundLatencyDto(
+        long answers,
+        long p50Millis,
+        long p90Millis,
+        long p99Millis,
+        long maxMillis
+) {}
@@ -0,0 +1,12 @@
+package com.pokeverse.play.quiz.dto;
+
+import java.util.List;
+
+public record RoundResultsDto(
+        int roundNumber,
+        String correctAnswer,
+        int answeredCount,
+        int correctCount,
+        List<PlayerRoundResultDto> players,
+        RoundLatencyDto latency
+) {}
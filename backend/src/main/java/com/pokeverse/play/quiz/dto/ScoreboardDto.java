@@ -0,0 +1,9 @@
+package com.pokeverse.play.quiz.dto;
+
+import java.util.List;
+
+// Full standings after a round, each one replaces the previous so a client may miss some
+public record ScoreboardDto(
+        int roundNumber,
+        List<LeaderBoardDto> standings
+) {}
@@ -0,0 +1,128 @@
+package com.pokeverse.play.quiz.engine;
+
+import com.pokeverse.play.model.Question;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// The question currently being played in a room
+@Getter
+public class ActiveQuestion {
+    private static final long MAX_TRACKED_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final int roundNumber;
+    private final Question question;
+    private final String answer;
+    // One bit per player slot, see PlayerState#getSlot
+    @Getter(AccessLevel.NONE)
+    private final AtomicLongArray answered;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLongArray correct;
+    // Running tallies, kept as answers arrive so results never rescan the room
+    private int answeredCount;
+    private int correctCount;
+    // Set once the round has been scheduled to close early
+    private boolean closing;
+    // Stamped when the question is handed to the broker, answers are timed against the nano clock
+    private long sentAtNanos;
+    private Instant sentAt;
+    private final LatencyHistogram latencies = new LatencyHistogram(MAX_TRACKED_LATENCY_MICROS);
+
+    // Set by the projection writer once the multiplayer_questions row exists
+    @Setter
+    private volatile Long persistedId;
+
+    public ActiveQuestion(int roundNumber, Question question, int playerSlots) {
+        this.roundNumber = roundNumber;
+        this.question = question;
+        this.answer = question.getAnswer();
+        int words = (playerSlots + 63) >>> 6;
+        this.answered = new AtomicLongArray(words);
+        this.correct = new AtomicLongArray(words);
+    }
+
+    public void markSent() {
+        sentAtNanos = System.nanoTime();
+        sentAt = Instant.now();
+    }
+
+    // Time from broadcast to the answer reaching the server, recorded in the round's histogram
+    public long recordLatency(long receivedAtNanos) {
+        long latencyNanos = Math.max(0, receivedAtNanos - sentAtNanos);
+        latencies.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        return latencyNanos;
+    }
+
+    public void markClosing() {
+        closing = true;
+    }
+
+    public boolean isCorrect(String selectedOption) {
+        return answer.equalsIgnoreCase(selectedOption);
+    }
+
+    // Returns false if the slot already answered this round
+    public boolean recordAnswer(int slot, boolean isCorrect) {
+        if (!setBit(answered, slot)) {
+            return false;
+        }
+        answeredCount++;
+        if (isCorrect) {
+            setBit(correct, slot);
+            correctCount++;
+        }
+        return true;
+    }
+
+    // Undoes recordAnswer when the answer could not be accepted
+    public void forgetAnswer(int slot) {
+        if (!hasAnswered(slot)) {
+            return;
+        }
+        if (answeredCorrectly(slot)) {
+            clearBit(correct, slot);
+            correctCount--;
+        }
+        clearBit(answered, slot);
+        answeredCount--;
+    }
+
+    public boolean hasAnswered(int slot) {
+        return isSet(answered, slot);
+    }
+
+    public boolean answeredCorrectly(int slot) {
+        return isSet(correct, slot);
+    }
+
+    // CAS the bit in, false if it was already set
+    private static boolean setBit(AtomicLongArray bits, int slot) {
+        int word = slot >>> 6;
+        long mask = 1L << slot;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    private static void clearBit(AtomicLongArray bits, int slot) {
+        int word = slot >>> 6;
+        long mask = 1L << slot;
+        long current;
+        do {
+            current = bits.get(word);
+        } while (!bits.compareAndSet(word, current, current & ~mask));
+    }
+
+    private static boolean isSet(AtomicLongArray bits, int slot) {
+        return (bits.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.pokeverse.play.quiz.engine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Points for a correct answer. With {@code time-weighted} scoring an instant answer is worth
+ * {@code max-points} and the award falls linearly to {@code min-points} at the end of the
+ * answer window; otherwise every correct answer is worth {@code min-points}.
+ */
+@Component
+public class AnswerScoring {
+
+    private final boolean timeWeighted;
+    private final int minPoints;
+    private final int maxPoints;
+
+    public AnswerScoring(@Value("${pokeverse.scoring.time-weighted:true}") boolean timeWeighted,
+                         @Value("${pokeverse.scoring.min-points:10}") int minPoints,
+                         @Value("${pokeverse.scoring.max-points:20}") int maxPoints) {
+        this.timeWeighted = timeWeighted;
+        this.minPoints = minPoints;
+        this.maxPoints = timeWeighted ? Math.max(minPoints, maxPoints) : minPoints;
+    }
+
+    public int points(long latencyNanos, Duration window) {
+        if (!timeWeighted) {
+            return minPoints;
+        }
+        long windowNanos = window.toNanos();
+        long remaining = Math.max(0, windowNanos - Math.max(0, latencyNanos));
+        return minPoints + (int) ((maxPoints - minPoints) * remaining / windowNanos);
+    }
+
+    // Upper bound for a single answer, sizes the leaderboard's score range
+    public int maxPoints() {
+        return maxPoints;
+    }
+}
@@ -0,0 +1,13 @@
+package com.pokeverse.play.quiz.engine;
+
+import java.time.Instant;
+
+// One answered question waiting to be written, carries the player's score after the answer
+public record AttemptRecord(
+        long playerId,
+        ActiveQuestion question,
+        String selectedOption,
+        boolean isCorrect,
+        int score,
+        Instant answeredAt
+) {}
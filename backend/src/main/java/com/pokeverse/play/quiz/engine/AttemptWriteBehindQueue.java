@@ -0,0 +1,224 @@
+package com.pokeverse.play.quiz.engine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for multiplayer answers. Answers are acknowledged from memory
+ * and queued here; a single flusher thread drains the queue into JDBC batches whenever
+ * {@code batch-size} records are waiting or {@code flush-interval} has passed.
+ * <p>
+ * A batch mixes rooms, so a batch that fails (say one player left, or one room was
+ * deleted, before the flush) is retried one row at a time and only the rows that fail
+ * again are dropped.
+ */
+@Slf4j
+@Component
+public class AttemptWriteBehindQueue {
+
+    private static final String INSERT_ATTEMPT = """
+            INSERT INTO multiplayer_attempts (player_id, multiplayer_question_id, selected_option, is_correct, answered_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (player_id, multiplayer_question_id) DO NOTHING""";
+    private static final String UPDATE_SCORE = "UPDATE room_players SET score = ? WHERE id = ?";
+    // A question row that still isn't there after this long is not coming
+    private static final Duration MAX_DEFER = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AttemptRecord> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+
+    private final Counter enqueued;
+    private final Counter rejected;
+    private final Counter flushedRecords;
+    private final Counter failedRecords;
+    private final Timer flushTimer;
+
+    private final List<AttemptRecord> deferred = new ArrayList<>();
+    private final Thread flusher = new Thread(this::runFlusher, "attempt-write-behind");
+    private volatile boolean running = true;
+
+    public AttemptWriteBehindQueue(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${pokeverse.write-behind.capacity:10000}") int capacity,
+                                   @Value("${pokeverse.write-behind.batch-size:200}") int batchSize,
+                                   @Value("${pokeverse.write-behind.flush-interval:500ms}") Duration flushInterval,
+                                   @Value("${pokeverse.write-behind.offer-timeout:50ms}") Duration offerTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+
+        this.enqueued = meterRegistry.counter("pokeverse.attempts.enqueued");
+        this.rejected = meterRegistry.counter("pokeverse.attempts.rejected");
+        this.flushedRecords = meterRegistry.counter("pokeverse.attempts.flushed");
+        this.failedRecords = meterRegistry.counter("pokeverse.attempts.failed");
+        this.flushTimer = meterRegistry.timer("pokeverse.attempts.flush");
+        Gauge.builder("pokeverse.attempts.queue.depth", queue, Collection::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Queues an answer for persistence. Waits at most {@code offer-timeout} for space,
+     * never for the database. Returns false when the queue stays full, the caller is
+     * expected to reject the answer so the client can retry.
+     */
+    public boolean enqueue(AttemptRecord record) {
+        try {
+            if (queue.offer(record, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                enqueued.increment();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    private void runFlusher() {
+        List<AttemptRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                fill(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Blocks until the batch is full or the flush interval has passed
+    private void fill(List<AttemptRecord> batch) throws InterruptedException {
+        batch.addAll(deferred);
+        deferred.clear();
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            AttemptRecord record = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (record == null) {
+                return;
+            }
+            batch.add(record);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void flush(List<AttemptRecord> batch) {
+        List<Object[]> attempts = new ArrayList<>(batch.size());
+        // Only the latest score per player matters, earlier updates in the batch are redundant
+        Map<Long, Integer> scores = new LinkedHashMap<>();
+        Instant deferLimit = Instant.now().minus(MAX_DEFER);
+
+        for (AttemptRecord record : batch) {
+            Long questionId = record.question().getPersistedId();
+            if (questionId == null) {
+                if (record.answeredAt().isAfter(deferLimit)) {
+                    deferred.add(record);
+                } else {
+                    log.warn("Dropping attempt for player {}: round {} was never persisted",
+                            record.playerId(), record.question().getRoundNumber());
+                    failedRecords.increment();
+                }
+                continue;
+            }
+            attempts.add(new Object[]{
+                    record.playerId(),
+                    questionId,
+                    record.selectedOption(),
+                    record.isCorrect(),
+                    Timestamp.from(record.answeredAt())
+            });
+            if (record.isCorrect()) {
+                scores.put(record.playerId(), record.score());
+            }
+        }
+
+        if (attempts.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> scoreUpdates = scores.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .toList();
+
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_ATTEMPT, attempts);
+                if (!scoreUpdates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SCORE, scoreUpdates);
+                }
+            });
+            flushedRecords.increment(attempts.size());
+        } catch (Exception e) {
+            log.warn("Failed to flush {} attempts as a batch, retrying one by one: {}", attempts.size(), e.getMessage());
+            flushOneByOne(attempts, scoreUpdates);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Each row on its own, a row whose player or question is gone can't take the others with it
+    private void flushOneByOne(List<Object[]> attempts, List<Object[]> scoreUpdates) {
+        for (Object[] attempt : attempts) {
+            try {
+                jdbcTemplate.update(INSERT_ATTEMPT, attempt);
+                flushedRecords.increment();
+            } catch (Exception e) {
+                log.warn("Dropping attempt for player {}: {}", attempt[0], e.getMessage());
+                failedRecords.increment();
+            }
+        }
+        for (Object[] update : scoreUpdates) {
+            try {
+                jdbcTemplate.update(UPDATE_SCORE, update);
+            } catch (Exception e) {
+                log.warn("Dropping score update for player {}: {}", update[1], e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // The flusher wakes up at least every flush-interval and exits once the queue is drained
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
@@ -0,0 +1,85 @@
+package com.pokeverse.play.quiz.engine;
+
+/**
+ * Answer latencies of one round in microseconds, bucketed the way HdrHistogram does it:
+ * every power of two is split into 32 linear sub-buckets, so any recorded value is off by
+ * at most ~3% while the whole range up to {@code highestTrackable} fits in a few hundred
+ * counters. {@link #record} is a couple of shifts and an increment, it never allocates.
+ * <p>
+ * Written from the room's mailbox only, like the rest of the round state.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    private static final long SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+    private static final int LEADING_ZERO_BASE = 64 - SUB_BUCKET_HALF_BITS - 1;
+
+    private final long highestTrackable;
+    private final long[] counts;
+    private long totalCount;
+    private long max;
+
+    public LatencyHistogram(long highestTrackable) {
+        this.highestTrackable = highestTrackable;
+        int buckets = 1;
+        long smallestUntracked = SUB_BUCKET_COUNT;
+        while (smallestUntracked <= highestTrackable) {
+            smallestUntracked <<= 1;
+            buckets++;
+        }
+        this.counts = new long[(buckets + 1) * SUB_BUCKET_HALF_COUNT];
+    }
+
+    // Out of range values are clamped rather than dropped, they still count towards the tail
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, highestTrackable));
+        counts[indexOf(clamped)]++;
+        totalCount++;
+        if (clamped > max) {
+            max = clamped;
+        }
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    // Lowest value of the bucket holding the given percentile, 0 when nothing was recorded
+    public long percentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(valueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int indexOf(long value) {
+        int bucket = LEADING_ZERO_BASE - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK);
+        int subBucket = (int) (value >>> bucket);
+        return ((bucket + 1) << SUB_BUCKET_HALF_BITS) + (subBucket - SUB_BUCKET_HALF_COUNT);
+    }
+
+    private static long valueAt(int index) {
+        int bucket = (index >> SUB_BUCKET_HALF_BITS) - 1;
+        int subBucket = (index & (SUB_BUCKET_HALF_COUNT - 1)) + SUB_BUCKET_HALF_COUNT;
+        if (bucket < 0) {
+            subBucket -= SUB_BUCKET_HALF_COUNT;
+            bucket = 0;
+        }
+        return (long) subBucket << bucket;
+    }
+}
@@ -0,0 +1,157 @@
+package com.pokeverse.play.quiz.engine;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Order-statistic index over player scores: a Fenwick tree counting players per score
+ * bucket, plus an intrusive list of the slots sitting in each bucket. Score updates and
+ * rank lookups are O(log maxScore), top K is O(K + distinct scores * log maxScore).
+ * Ties share a rank (1, 2, 2, 4).
+ */
+public class Leaderboard {
+
+    private static final int NONE = -1;
+
+    private final int maxScore;
+    // Position 1 holds maxScore, so prefix sums count players at or above a score
+    private final int[] tree;
+    private final int[] head;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] scores;
+    private final boolean[] present;
+    private int size;
+
+    public Leaderboard(int slots, int maxScore) {
+        this.maxScore = Math.max(0, maxScore);
+        this.tree = new int[this.maxScore + 2];
+        this.head = new int[this.maxScore + 1];
+        this.next = new int[slots];
+        this.prev = new int[slots];
+        this.scores = new int[slots];
+        this.present = new boolean[slots];
+        Arrays.fill(head, NONE);
+    }
+
+    public void add(int slot, int score) {
+        if (present[slot]) {
+            update(slot, score);
+            return;
+        }
+        int clamped = clamp(score);
+        scores[slot] = clamped;
+        present[slot] = true;
+        link(slot, clamped);
+        adjust(position(clamped), 1);
+        size++;
+    }
+
+    public void update(int slot, int score) {
+        int clamped = clamp(score);
+        if (!present[slot] || scores[slot] == clamped) {
+            return;
+        }
+        unlink(slot, scores[slot]);
+        adjust(position(scores[slot]), -1);
+        scores[slot] = clamped;
+        link(slot, clamped);
+        adjust(position(clamped), 1);
+    }
+
+    public void remove(int slot) {
+        if (!present[slot]) {
+            return;
+        }
+        unlink(slot, scores[slot]);
+        adjust(position(scores[slot]), -1);
+        present[slot] = false;
+        size--;
+    }
+
+    // 1 + number of players with a strictly higher score, 0 if the slot is not ranked
+    public int rank(int slot) {
+        if (!present[slot]) {
+            return 0;
+        }
+        return prefix(position(scores[slot]) - 1) + 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Visits up to k slots from the highest score down
+    public void forEachTop(int k, IntConsumer visitor) {
+        int visited = 0;
+        int seen = 0;
+        while (visited < k && seen < size) {
+            // First bucket holding the (seen + 1)-th best player
+            int pos = lowerBound(seen + 1);
+            int score = maxScore - pos + 1;
+            for (int slot = head[score]; slot != NONE && visited < k; slot = next[slot]) {
+                visitor.accept(slot);
+                visited++;
+            }
+            seen = prefix(pos);
+        }
+    }
+
+    private void link(int slot, int score) {
+        prev[slot] = NONE;
+        next[slot] = head[score];
+        if (head[score] != NONE) {
+            prev[head[score]] = slot;
+        }
+        head[score] = slot;
+    }
+
+    private void unlink(int slot, int score) {
+        if (prev[slot] != NONE) {
+            next[prev[slot]] = next[slot];
+        } else {
+            head[score] = next[slot];
+        }
+        if (next[slot] != NONE) {
+            prev[next[slot]] = prev[slot];
+        }
+        next[slot] = NONE;
+        prev[slot] = NONE;
+    }
+
+    private int clamp(int score) {
+        return Math.max(0, Math.min(maxScore, score));
+    }
+
+    private int position(int score) {
+        return maxScore - score + 1;
+    }
+
+    private void adjust(int pos, int delta) {
+        for (int i = pos; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private int prefix(int pos) {
+        int sum = 0;
+        for (int i = pos; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Smallest position whose prefix sum reaches target
+    private int lowerBound(int target) {
+        int pos = 0;
+        int step = Integer.highestOneBit(tree.length - 1);
+        for (; step > 0; step >>= 1) {
+            int nextPos = pos + step;
+            if (nextPos < tree.length && tree[nextPos] < target) {
+                pos = nextPos;
+                target -= tree[nextPos];
+            }
+        }
+        return pos + 1;
+    }
+}
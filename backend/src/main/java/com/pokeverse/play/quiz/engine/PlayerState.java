@@ -0,0 +1,40 @@
+package com.pokeverse.play.quiz.engine;
+
+import com.pokeverse.play.model.RoomPlayer;
+import lombok.Getter;
+
+// In-memory view of a RoomPlayer while the game is running
+@Getter
+public class PlayerState {
+    // Dense index in the room's roster, used for per-round bitsets
+    private final int slot;
+    private final long playerId;
+    private final long userId;
+    private final String name;
+    private final String avatar;
+    private int score;
+    private boolean active = true;
+
+    public PlayerState(int slot, long playerId, long userId, String name, String avatar, int score) {
+        this.slot = slot;
+        this.playerId = playerId;
+        this.userId = userId;
+        this.name = name;
+        this.avatar = avatar;
+        this.score = score;
+    }
+
+    public static PlayerState from(int slot, RoomPlayer player) {
+        return new PlayerState(slot, player.getId(), player.getUserId(), player.getName(), player.getAvatar(), player.getScore());
+    }
+
+    // Players who leave mid-game keep their slot but stop playing
+    public void leave() {
+        active = false;
+    }
+
+    public int addScore(int points) {
+        score += points;
+        return score;
+    }
+}
@@ -0,0 +1,26 @@
+package com.pokeverse.play.quiz.engine;
+
+import com.pokeverse.play.model.Question;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Questions drawn once at game start, one per round, no repeats
+public class QuestionDeck {
+    private final List<Question> questions;
+    private int next;
+
+    public QuestionDeck(List<Question> questions) {
+        this.questions = new ArrayList<>(questions);
+        Collections.shuffle(this.questions);
+    }
+
+    public Question draw() {
+        return next < questions.size() ? questions.get(next++) : null;
+    }
+
+    public int size() {
+        return questions.size();
+    }
+}
@@ -0,0 +1,80 @@
+package com.pokeverse.play.quiz.engine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single-consumer command queue for one room. Any thread may post, but at most one
+ * drain runs at a time, so commands for the room execute one after another in the
+ * order they were posted and the room's state needs no locks.
+ * <p>
+ * Once closed a mailbox accepts nothing and drops what it still holds, so commands
+ * for a room never run on two mailboxes at once.
+ */
+@Slf4j
+public class RoomMailbox {
+
+    // Commands handled per drain before yielding the carrier to other rooms
+    private static final int BATCH = 64;
+
+    private final long roomId;
+    private final Executor executor;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+
+    RoomMailbox(long roomId, Executor executor) {
+        this.roomId = roomId;
+        this.executor = executor;
+    }
+
+    // False once the mailbox is closed, the command is then dropped
+    public boolean post(Runnable command) {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            commands.add(command);
+        }
+        trySchedule();
+        return true;
+    }
+
+    synchronized void close() {
+        closed = true;
+    }
+
+    private void trySchedule() {
+        if (closed) {
+            commands.clear();
+            return;
+        }
+        if (!commands.isEmpty() && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH && !closed; i++) {
+                Runnable command = commands.poll();
+                if (command == null) {
+                    break;
+                }
+                try {
+                    command.run();
+                } catch (Exception e) {
+                    log.error("Command for room {} failed: {}", roomId, e.getMessage(), e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            // Someone may have posted between our last poll and releasing the flag
+            trySchedule();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.pokeverse.play.quiz.engine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Routes every command for a running game (answer, tick, leave) through that room's
+ * {@link RoomMailbox}. Mailboxes drain on virtual threads, so a blocked room only
+ * parks its own virtual thread and rooms spread across all cores.
+ * <p>
+ * A mailbox only exists while the room is registered in {@link RoomStateRegistry}, so
+ * commands for unknown room ids are dropped instead of piling up mailboxes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomMailboxes {
+
+    private final RoomStateRegistry roomStateRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, RoomMailbox> mailboxes = new ConcurrentHashMap<>();
+
+    // False if the room has no running game here, the command is then dropped
+    public boolean dispatch(long roomId, Runnable command) {
+        // Registration is checked under the map's lock, a room removed from the registry before close() can't get a new mailbox
+        RoomMailbox mailbox = mailboxes.computeIfAbsent(roomId,
+                id -> roomStateRegistry.get(id) == null ? null : new RoomMailbox(id, executor));
+        if (mailbox == null || !mailbox.post(command)) {
+            log.debug("Dropping command for room {}, no game is running", roomId);
+            return false;
+        }
+        return true;
+    }
+
+    // Called once the room is removed from the registry, anything still queued is dropped
+    public void close(long roomId) {
+        RoomMailbox mailbox = mailboxes.remove(roomId);
+        if (mailbox != null) {
+            mailbox.close();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,74 @@
+package com.pokeverse.play.quiz.engine;
+
+import com.pokeverse.play.model.MultiplayerQuestion;
+import com.pokeverse.play.model.Status;
+import com.pokeverse.play.repository.*;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Writes the in-memory game state back to Postgres off the game thread.
+ * Answers and scores go through {@link AttemptWriteBehindQueue} instead.
+ */
+@Slf4j
+@Component
+public class RoomProjectionWriter {
+
+    private final RoomRepository roomRepository;
+    private final QuestionRepository questionRepository;
+    private final MultiplayerQuestionRepository multiplayerQuestionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "room-projection-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RoomProjectionWriter(RoomRepository roomRepository,
+                                QuestionRepository questionRepository,
+                                MultiplayerQuestionRepository multiplayerQuestionRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.roomRepository = roomRepository;
+        this.questionRepository = questionRepository;
+        this.multiplayerQuestionRepository = multiplayerQuestionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void projectRoomProgress(long roomId, Status status, int currentRound) {
+        submit("room progress " + roomId,
+                () -> roomRepository.updateProgress(roomId, status, currentRound));
+    }
+
+    public void projectQuestion(long roomId, ActiveQuestion question) {
+        submit("question for room " + roomId, () -> {
+            MultiplayerQuestion mpQuestion = MultiplayerQuestion.builder()
+                    .room(roomRepository.getReferenceById(roomId))
+                    .question(questionRepository.getReferenceById(question.getQuestion().getId()))
+                    .roundNumber(question.getRoundNumber())
+                    .sentAt(question.getSentAt())
+                    .build();
+            question.setPersistedId(multiplayerQuestionRepository.save(mpQuestion).getId());
+        });
+    }
+
+    private void submit(String description, Runnable write) {
+        writer.execute(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write.run());
+            } catch (Exception e) {
+                log.error("Failed to project {}: {}", description, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+}
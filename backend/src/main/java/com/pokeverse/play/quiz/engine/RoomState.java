@@ -0,0 +1,222 @@
+package com.pokeverse.play.quiz.engine;
+
+import com.pokeverse.play.model.Question;
+import com.pokeverse.play.model.Room;
+import com.pokeverse.play.model.RoomPlayer;
+import com.pokeverse.play.model.Status;
+import com.pokeverse.play.quiz.dto.LeaderBoardDto;
+import com.pokeverse.play.quiz.dto.MultiplayerPlayersInRoomDto;
+import com.pokeverse.play.quiz.dto.PlayerRoundResultDto;
+import com.pokeverse.play.quiz.dto.RankChangeDto;
+import com.pokeverse.play.quiz.dto.RoundLatencyDto;
+import com.pokeverse.play.quiz.dto.RoundResultsDto;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Authoritative state of a running game. While a room is IN_PROGRESS this object
+ * is the source of truth; the Room / RoomPlayer / MultiplayerQuestion rows are only
+ * a projection written by {@link RoomProjectionWriter}.
+ * <p>
+ * Only mutated from the room's {@link RoomMailbox}, so it takes no locks.
+ */
+@Getter
+public class RoomState {
+    private final long roomId;
+    private final long hostId;
+    private final int totalRounds;
+    private final List<PlayerState> players;
+    // Active players only, so a lookup is all findPlayer needs
+    @Getter(AccessLevel.NONE)
+    private final RosterIndex roster;
+    private QuestionDeck deck;
+    private Leaderboard leaderboard;
+    // Rank each slot had at the last leaderboard update, 0 = not ranked yet
+    private int[] lastRanks;
+    private int activePlayerCount;
+
+    private volatile Status status;
+    private volatile int currentRound;
+    private volatile ActiveQuestion activeQuestion;
+
+    private RoomState(long roomId, long hostId, int totalRounds, List<PlayerState> players) {
+        this.roomId = roomId;
+        this.hostId = hostId;
+        this.totalRounds = totalRounds;
+        this.players = players;
+        this.roster = new RosterIndex(players.size());
+        for (PlayerState player : players) {
+            roster.put(player.getUserId(), player.getSlot());
+        }
+        this.activePlayerCount = players.size();
+        this.status = Status.NOT_STARTED;
+    }
+
+    public static RoomState from(Room room) {
+        List<RoomPlayer> roster = room.getPlayers();
+        List<PlayerState> players = IntStream.range(0, roster.size())
+                .mapToObj(slot -> PlayerState.from(slot, roster.get(slot)))
+                .toList();
+        return new RoomState(room.getId(), room.getHostId(), room.getTotalRounds(), players);
+    }
+
+    public void start(QuestionDeck deck, int maxPointsPerAnswer) {
+        this.deck = deck;
+        int startingScore = players.stream().mapToInt(PlayerState::getScore).max().orElse(0);
+        this.leaderboard = new Leaderboard(players.size(), startingScore + totalRounds * maxPointsPerAnswer);
+        this.lastRanks = new int[players.size()];
+        for (PlayerState player : players) {
+            leaderboard.add(player.getSlot(), player.getScore());
+        }
+        status = Status.IN_PROGRESS;
+        currentRound = 1;
+    }
+
+    public void complete() {
+        status = Status.COMPLETED;
+        activeQuestion = null;
+    }
+
+    public boolean isInProgress() {
+        return status == Status.IN_PROGRESS;
+    }
+
+    public boolean isFinished() {
+        return currentRound > totalRounds;
+    }
+
+    // Draws the question for the current round and moves the round counter forward,
+    // returns null if the deck ran out
+    public ActiveQuestion nextRound() {
+        Question question = deck.draw();
+        if (question == null) {
+            return null;
+        }
+        ActiveQuestion next = new ActiveQuestion(currentRound, question, players.size());
+        activeQuestion = next;
+        currentRound++;
+        return next;
+    }
+
+    // Whether every active player the filter keeps has answered, e.g. every one still connected
+    public boolean allAnswered(ActiveQuestion question, LongPredicate byUserId) {
+        if (question.getAnsweredCount() >= activePlayerCount) {
+            return true;
+        }
+        for (PlayerState player : players) {
+            if (player.isActive() && !question.hasAnswered(player.getSlot()) && byUserId.test(player.getUserId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int award(PlayerState player, int points) {
+        int score = player.addScore(points);
+        leaderboard.update(player.getSlot(), score);
+        return score;
+    }
+
+    public void leave(PlayerState player) {
+        if (!player.isActive()) {
+            return;
+        }
+        player.leave();
+        roster.remove(player.getUserId());
+        activePlayerCount--;
+        leaderboard.remove(player.getSlot());
+        // Keeps the round's answered tally about players who are still here
+        if (activeQuestion != null) {
+            activeQuestion.forgetAnswer(player.getSlot());
+        }
+    }
+
+    public int rankOf(PlayerState player) {
+        return leaderboard.rank(player.getSlot());
+    }
+
+    public List<LeaderBoardDto> topPlayers(int k) {
+        List<LeaderBoardDto> top = new ArrayList<>(Math.min(k, leaderboard.size()));
+        leaderboard.forEachTop(k, slot -> {
+            PlayerState p = players.get(slot);
+            top.add(new LeaderBoardDto(leaderboard.rank(slot), p.getUserId(), p.getName(), p.getScore()));
+        });
+        return top;
+    }
+
+    // Players whose rank moved since the previous call, O(players * log maxScore)
+    public List<RankChangeDto> rankChanges() {
+        List<RankChangeDto> changes = new ArrayList<>();
+        for (PlayerState p : players) {
+            int slot = p.getSlot();
+            int rank = leaderboard.rank(slot);
+            if (rank != lastRanks[slot]) {
+                if (rank != 0) {
+                    changes.add(new RankChangeDto(p.getUserId(), rank, lastRanks[slot], p.getScore()));
+                }
+                lastRanks[slot] = rank;
+            }
+        }
+        return changes;
+    }
+
+    // One pass over the roster, answered / correct come from the round's bitsets
+    public RoundResultsDto roundResults(ActiveQuestion question) {
+        List<PlayerRoundResultDto> results = new ArrayList<>(players.size());
+        for (PlayerState p : players) {
+            if (!p.isActive()) {
+                continue;
+            }
+            int slot = p.getSlot();
+            results.add(new PlayerRoundResultDto(
+                    p.getUserId(),
+                    p.getName(),
+                    p.getScore(),
+                    question.hasAnswered(slot),
+                    question.answeredCorrectly(slot)
+            ));
+        }
+        LatencyHistogram latencies = question.getLatencies();
+        return new RoundResultsDto(
+                question.getRoundNumber(),
+                question.getAnswer(),
+                question.getAnsweredCount(),
+                question.getCorrectCount(),
+                results,
+                new RoundLatencyDto(
+                        latencies.getTotalCount(),
+                        microsToMillis(latencies.percentile(50)),
+                        microsToMillis(latencies.percentile(90)),
+                        microsToMillis(latencies.percentile(99)),
+                        microsToMillis(latencies.getMax())
+                )
+        );
+    }
+
+    // Players whose score went up in the given round
+    public List<MultiplayerPlayersInRoomDto> scoredIn(ActiveQuestion question) {
+        List<MultiplayerPlayersInRoomDto> scored = new ArrayList<>(question.getCorrectCount());
+        for (PlayerState p : players) {
+            if (p.isActive() && question.answeredCorrectly(p.getSlot())) {
+                scored.add(new MultiplayerPlayersInRoomDto(
+                        p.getPlayerId(), p.getUserId(), p.getName(), p.getAvatar(), p.getScore()));
+            }
+        }
+        return scored;
+    }
+
+    private static long microsToMillis(long micros) {
+        return TimeUnit.MICROSECONDS.toMillis(micros);
+    }
+
+    public PlayerState findPlayer(long userId) {
+        int slot = roster.get(userId);
+        return slot < 0 ? null : players.get(slot);
+    }
+}
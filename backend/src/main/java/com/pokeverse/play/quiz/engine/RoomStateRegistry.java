@@ -0,0 +1,31 @@
+package com.pokeverse.play.quiz.engine;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Holds the live RoomState of every game running on this node
+@Component
+public class RoomStateRegistry {
+
+    private final Map<Long, RoomState> rooms = new ConcurrentHashMap<>();
+
+    // False if a game is already registered for the room
+    public boolean register(RoomState state) {
+        return rooms.putIfAbsent(state.getRoomId(), state) == null;
+    }
+
+    public RoomState get(Long roomId) {
+        return roomId == null ? null : rooms.get(roomId);
+    }
+
+    public RoomState remove(Long roomId) {
+        return rooms.remove(roomId);
+    }
+
+    public Collection<RoomState> all() {
+        return rooms.values();
+    }
+}
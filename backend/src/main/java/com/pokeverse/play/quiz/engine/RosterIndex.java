@@ -0,0 +1,79 @@
+package com.pokeverse.play.quiz.engine;
+
+import java.util.Arrays;
+
+/**
+ * userId -> player slot for one room, open addressing over primitive arrays so a lookup
+ * never boxes. Linear probing with backward-shift deletion keeps probe chains short
+ * without tombstones, and the table is sized to stay at most half full.
+ */
+class RosterIndex {
+
+    private static final int EMPTY = -1;
+
+    private final long[] keys;
+    private final int[] slots;
+    private final int mask;
+    private int size;
+
+    RosterIndex(int expectedPlayers) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedPlayers) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(slots, EMPTY);
+    }
+
+    void put(long userId, int slot) {
+        int i = indexFor(userId);
+        while (slots[i] != EMPTY && keys[i] != userId) {
+            i = (i + 1) & mask;
+        }
+        if (slots[i] == EMPTY) {
+            size++;
+        }
+        keys[i] = userId;
+        slots[i] = slot;
+    }
+
+    // Slot of the player, -1 if they are not (or no longer) in the room
+    int get(long userId) {
+        for (int i = indexFor(userId); slots[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == userId) {
+                return slots[i];
+            }
+        }
+        return EMPTY;
+    }
+
+    void remove(long userId) {
+        int i = indexFor(userId);
+        while (slots[i] != EMPTY && keys[i] != userId) {
+            i = (i + 1) & mask;
+        }
+        if (slots[i] == EMPTY) {
+            return;
+        }
+        size--;
+        // Pull later entries of the probe chain back into the hole
+        int hole = i;
+        for (int j = (hole + 1) & mask; slots[j] != EMPTY; j = (j + 1) & mask) {
+            int home = indexFor(keys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                slots[hole] = slots[j];
+                hole = j;
+            }
+        }
+        slots[hole] = EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int indexFor(long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
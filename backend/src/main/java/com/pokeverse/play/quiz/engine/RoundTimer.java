@@ -0,0 +1,290 @@
+package com.pokeverse.play.quiz.engine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hashed timing wheel for round deadlines. Scheduling and cancelling are O(1): new
+ * timeouts go onto a lock-free queue and are hashed into a bucket by the tick thread,
+ * cancelled ones are unlinked from their bucket on the next tick.
+ * <p>
+ * The tick thread never runs room logic, expired tasks are handed to a separate worker
+ * executor. A timeout fires at most one tick late, the actual drift and the time a task
+ * waited for a worker are published as {@code pokeverse.round-timer.drift} and
+ * {@code pokeverse.round-timer.lag}.
+ */
+@Slf4j
+@Component
+public class RoundTimer {
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final ExecutorService worker;
+    private final Thread tickThread = new Thread(this::run, "round-timer");
+    private final long startTime;
+    private volatile boolean running = true;
+    private long tick;
+
+    private final Timer drift;
+    private final Timer lag;
+
+    public RoundTimer(MeterRegistry meterRegistry,
+                      @Value("${pokeverse.round-timer.tick:100ms}") Duration tickDuration,
+                      @Value("${pokeverse.round-timer.wheel-size:512}") int wheelSize,
+                      @Value("${pokeverse.round-timer.worker-threads:0}") int workerThreads) {
+        this.tickNanos = tickDuration.toNanos();
+        this.wheel = new Bucket[normalize(wheelSize)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.worker = Executors.newFixedThreadPool(
+                workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors(),
+                namedThreads("round-worker-"));
+
+        this.drift = meterRegistry.timer("pokeverse.round-timer.drift");
+        this.lag = meterRegistry.timer("pokeverse.round-timer.lag");
+        Gauge.builder("pokeverse.round-timer.pending", pending, AtomicLong::get).register(meterRegistry);
+
+        this.startTime = System.nanoTime();
+    }
+
+    @PostConstruct
+    public void start() {
+        tickThread.setDaemon(true);
+        tickThread.start();
+    }
+
+    /**
+     * Runs the task on the worker executor once the delay has passed.
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        long deadline = System.nanoTime() - startTime + Math.max(0, delay.toNanos());
+        Timeout timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = waitForNextTick();
+            if (deadline < 0) {
+                continue;
+            }
+            removeCancelled();
+            transferPending();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    // Returns the wheel time of the tick that just started, or -1 if we were interrupted
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long current = System.nanoTime() - startTime;
+            long sleepNanos = deadline - current;
+            if (sleepNanos <= 0) {
+                return current;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // Deadlines already in the past go into the current bucket
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void fire(Timeout timeout, long now) {
+        if (!timeout.state.compareAndSet(Timeout.INIT, Timeout.EXPIRED)) {
+            return;
+        }
+        pending.decrementAndGet();
+        drift.record(Math.max(0, now - timeout.deadline), TimeUnit.NANOSECONDS);
+        long queuedAt = System.nanoTime();
+        worker.execute(() -> {
+            lag.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            runSafely(timeout.task);
+        });
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Round timer task failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        tickThread.interrupt();
+        worker.shutdown();
+    }
+
+    private static int normalize(int wheelSize) {
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Handle for a scheduled task.
+     */
+    public final class Timeout {
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+        // Only touched by the tick thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Returns false if the task already fired or was cancelled before.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    // Doubly linked list of timeouts, only used from the tick thread
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long now) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    fire(timeout, now);
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.pokeverse.play.quiz.fanout;
+
+import com.pokeverse.play.quiz.utils.EncodedPayload;
+import org.springframework.util.MimeType;
+
+import java.io.*;
+
+/**
+ * Wire format of a relayed message: origin node, destination, content type and the
+ * already serialized payload, so receiving nodes never decode or re-encode the body.
+ */
+record FanoutFrame(String originNode, String destination, EncodedPayload payload) {
+
+    byte[] encode() {
+        byte[] body = payload.bytes();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length + destination.length() + 64);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeUTF(originNode);
+            out.writeUTF(destination);
+            out.writeUTF(payload.contentType().toString());
+            out.writeInt(body.length);
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    static FanoutFrame decode(byte[] frame) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame))) {
+            String originNode = in.readUTF();
+            String destination = in.readUTF();
+            MimeType contentType = MimeType.valueOf(in.readUTF());
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new FanoutFrame(originNode, destination, new EncodedPayload(body, contentType));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.pokeverse.play.quiz.fanout;
+
+import com.pokeverse.play.quiz.utils.EncodedPayload;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+// Hands a pre-serialized payload to this node's simple broker
+@Component
+@RequiredArgsConstructor
+public class LocalBrokerDelivery {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public void deliver(String destination, EncodedPayload payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(payload.contentType());
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(payload.bytes(), accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.pokeverse.play.quiz.fanout;
+
+import com.pokeverse.play.quiz.utils.EncodedPayload;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Single node: every subscriber is on this JVM
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "pokeverse.fanout", havingValue = "local", matchIfMissing = true)
+public class LocalRoomFanout implements RoomFanout {
+
+    private final LocalBrokerDelivery localBrokerDelivery;
+
+    @Override
+    public void publish(String destination, EncodedPayload payload) {
+        localBrokerDelivery.deliver(destination, payload);
+    }
+}
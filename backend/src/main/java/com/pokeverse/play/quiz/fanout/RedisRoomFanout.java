@@ -0,0 +1,192 @@
+package com.pokeverse.play.quiz.fanout;
+
+import com.pokeverse.play.quiz.utils.EncodedPayload;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Multi-node fan-out over Redis pub/sub. Every message is delivered to the local broker
+ * first and then published on a per-room or per-player channel. A node only listens on
+ * the channels its own sockets are subscribed to, so it only receives traffic for rooms
+ * it serves, and it drops its own frames when they come back. Relayed frames are announced
+ * as {@link RelayedFrame} events for state kept per node, such as chat history.
+ * <p>
+ * Subscribing and unsubscribing block on Redis, so they happen on one background thread
+ * that brings the channels Redis listens on in line with the reference counts.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "pokeverse.fanout", havingValue = "redis")
+public class RedisRoomFanout implements RoomFanout, MessageListener {
+
+    private static final String CHANNEL_PREFIX = "pokeverse:fanout:";
+    private static final String ROOM_TOPIC = "/topic/room/";
+    private static final String PLAYER_TOPIC = "/topic/player/";
+
+    private final LocalBrokerDelivery localBrokerDelivery;
+    private final RedisTemplate<String, byte[]> bytesRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId = UUID.randomUUID().toString();
+    // channel -> number of local STOMP subscriptions on it
+    private final Map<String, Integer> channelRefs = new ConcurrentHashMap<>();
+    // sessionId -> subscriptionId -> channel
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+    // Channels the listener container is subscribed to, only touched by the subscriber thread
+    private final Set<String> listening = new HashSet<>();
+    private final ExecutorService subscriber =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("fanout-subscriber").factory());
+
+    public RedisRoomFanout(LocalBrokerDelivery localBrokerDelivery,
+                           @Qualifier("bytesRedisTemplate") RedisTemplate<String, byte[]> bytesRedisTemplate,
+                           RedisMessageListenerContainer listenerContainer,
+                           ApplicationEventPublisher eventPublisher) {
+        this.localBrokerDelivery = localBrokerDelivery;
+        this.bytesRedisTemplate = bytesRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(String destination, EncodedPayload payload) {
+        localBrokerDelivery.deliver(destination, payload);
+        String channel = channelFor(destination);
+        if (channel == null) {
+            return;
+        }
+        try {
+            bytesRedisTemplate.convertAndSend(channel, new FanoutFrame(nodeId, destination, payload).encode());
+        } catch (Exception e) {
+            log.error("Failed to relay {} to other nodes: {}", destination, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isDistributed() {
+        return true;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        FanoutFrame frame = FanoutFrame.decode(message.getBody());
+        if (nodeId.equals(frame.originNode())) {
+            return;
+        }
+        localBrokerDelivery.deliver(frame.destination(), frame.payload());
+        eventPublisher.publishEvent(new RelayedFrame(frame.destination(), frame.payload()));
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String channel = channelFor(accessor.getDestination());
+        if (channel == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String previous = sessionSubscriptions
+                .computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), channel);
+        retain(channel);
+        if (previous != null) {
+            release(previous);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = accessor.getSessionId() == null
+                ? null
+                : sessionSubscriptions.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String channel = subscriptions.remove(accessor.getSubscriptionId());
+        if (channel != null) {
+            release(channel);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    private void retain(String channel) {
+        if (channelRefs.merge(channel, 1, Integer::sum) == 1) {
+            subscriber.execute(() -> sync(channel));
+        }
+    }
+
+    private void release(String channel) {
+        if (channelRefs.computeIfPresent(channel, (c, refs) -> refs <= 1 ? null : refs - 1) == null) {
+            subscriber.execute(() -> sync(channel));
+        }
+    }
+
+    // Reads the count when it runs, so a retain and release racing each other settle on the latest state
+    private void sync(String channel) {
+        boolean wanted = channelRefs.containsKey(channel);
+        try {
+            if (wanted && !listening.contains(channel)) {
+                listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+                listening.add(channel);
+            } else if (!wanted && listening.contains(channel)) {
+                listenerContainer.removeMessageListener(this, new ChannelTopic(channel));
+                listening.remove(channel);
+            }
+        } catch (Exception e) {
+            log.error("Failed to update the subscription to {}: {}", channel, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriber.shutdown();
+    }
+
+    // "/topic/room/42/game" -> "pokeverse:fanout:room:42", null for anything we don't relay
+    static String channelFor(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        if (destination.startsWith(ROOM_TOPIC)) {
+            return channel("room:", destination, ROOM_TOPIC.length());
+        }
+        if (destination.startsWith(PLAYER_TOPIC)) {
+            return channel("player:", destination, PLAYER_TOPIC.length());
+        }
+        return null;
+    }
+
+    private static String channel(String kind, String destination, int idStart) {
+        int idEnd = destination.indexOf('/', idStart);
+        String id = idEnd < 0 ? destination.substring(idStart) : destination.substring(idStart, idEnd);
+        return id.isEmpty() ? null : CHANNEL_PREFIX + kind + id;
+    }
+}
@@ -0,0 +1,7 @@
+package com.pokeverse.play.quiz.fanout;
+
+import com.pokeverse.play.quiz.utils.EncodedPayload;
+
+// Published for every frame another node relayed here, once the local broker has it
+public record RelayedFrame(String destination, EncodedPayload payload) {
+}
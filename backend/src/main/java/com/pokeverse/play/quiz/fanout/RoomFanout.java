@@ -0,0 +1,18 @@
+package com.pokeverse.play.quiz.fanout;
+
+import com.pokeverse.play.quiz.utils.EncodedPayload;
+
+/**
+ * Delivers {@code /topic/room/**} and {@code /topic/player/**} messages to every node
+ * that has a socket subscribed to them. Implementations deliver to the local broker
+ * themselves, so a single-node setup never leaves the JVM.
+ */
+public interface RoomFanout {
+
+    void publish(String destination, EncodedPayload payload);
+
+    // True when subscribers on other nodes may be listening, so local subscription counts are not enough
+    default boolean isDistributed() {
+        return false;
+    }
+}
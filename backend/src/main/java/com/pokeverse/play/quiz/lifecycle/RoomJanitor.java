@@ -0,0 +1,187 @@
+package com.pokeverse.play.quiz.lifecycle;
+
+import com.pokeverse.play.quiz.chat.ChatHistory;
+import com.pokeverse.play.quiz.engine.RoomMailboxes;
+import com.pokeverse.play.quiz.engine.RoomState;
+import com.pokeverse.play.quiz.engine.RoomStateRegistry;
+import com.pokeverse.play.quiz.engine.RoundTimer;
+import com.pokeverse.play.quiz.mapper.RoomIdAndCodeMapper;
+import com.pokeverse.play.quiz.presence.PresenceRegistry;
+import com.pokeverse.play.quiz.service.MultiplayerRoomQuizService;
+import com.pokeverse.play.quiz.service.RedisCacheService;
+import com.pokeverse.play.quiz.service.RoomEventService;
+import com.pokeverse.play.repository.RoomRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Periodic sweep over {@link RoomLifecycle}. A room that has been deleted, or finished
+ * for longer than {@code finished-retention}, gives back everything held for it: its
+ * code (back into the allocator's pool), its Redis keys, its round timer, mailbox and in-memory state, and its chat ring.
+ * Lobbies with nobody connected and no join or leave within {@code lobby-ttl} are abandoned
+ * and go the same way. A code is only given back once the room's row is gone, an abandoned
+ * or finished room that still exists keeps answering to it until its mapping expires, and
+ * each sweep hands expired codes back to the pool.
+ * <p>
+ * The sweep is timed by the {@link RoundTimer} but runs on the janitor's own thread, its
+ * database and Redis calls never hold a round worker. Reclaimed resources are counted in
+ * {@code pokeverse.rooms.reclaimed}, tagged by what was released.
+ */
+@Slf4j
+@Component
+public class RoomJanitor {
+
+    private static final String ROOM_CACHE_PREFIX = "room";
+
+    private final RoomLifecycle roomLifecycle;
+    private final RoomIdAndCodeMapper roomIdAndCodeMapper;
+    private final RedisCacheService redisCacheService;
+    private final RoomEventService roomEventService;
+    private final ChatHistory chatHistory;
+    private final RoomStateRegistry roomStateRegistry;
+    private final RoomMailboxes roomMailboxes;
+    private final MultiplayerRoomQuizService quizService;
+    private final RoundTimer roundTimer;
+    private final PresenceRegistry presenceRegistry;
+    private final RoomRepository roomRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration sweepInterval;
+    private final Duration finishedRetention;
+    private final Duration lobbyTtl;
+    private final ExecutorService sweeper =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("room-janitor").factory());
+
+    public RoomJanitor(RoomLifecycle roomLifecycle,
+                       RoomIdAndCodeMapper roomIdAndCodeMapper,
+                       RedisCacheService redisCacheService,
+                       RoomEventService roomEventService,
+                       ChatHistory chatHistory,
+                       RoomStateRegistry roomStateRegistry,
+                       RoomMailboxes roomMailboxes,
+                       MultiplayerRoomQuizService quizService,
+                       RoundTimer roundTimer,
+                       PresenceRegistry presenceRegistry,
+                       RoomRepository roomRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${pokeverse.janitor.sweep-interval:30s}") Duration sweepInterval,
+                       @Value("${pokeverse.janitor.finished-retention:2m}") Duration finishedRetention,
+                       @Value("${pokeverse.janitor.lobby-ttl:30m}") Duration lobbyTtl) {
+        this.roomLifecycle = roomLifecycle;
+        this.roomIdAndCodeMapper = roomIdAndCodeMapper;
+        this.redisCacheService = redisCacheService;
+        this.roomEventService = roomEventService;
+        this.chatHistory = chatHistory;
+        this.roomStateRegistry = roomStateRegistry;
+        this.roomMailboxes = roomMailboxes;
+        this.quizService = quizService;
+        this.roundTimer = roundTimer;
+        this.presenceRegistry = presenceRegistry;
+        this.roomRepository = roomRepository;
+        this.meterRegistry = meterRegistry;
+        this.sweepInterval = sweepInterval;
+        this.finishedRetention = finishedRetention;
+        this.lobbyTtl = lobbyTtl;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduleSweep();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdown();
+    }
+
+    // The timer task only hands over, the round workers are kept for round deadlines
+    private void scheduleSweep() {
+        roundTimer.schedule(() -> sweeper.execute(this::sweep), sweepInterval);
+    }
+
+    private void sweep() {
+        try {
+            long now = System.nanoTime();
+            roomLifecycle.forEach((roomId, entry) -> {
+                long age = now - entry.sinceNanos();
+                switch (entry.state()) {
+                    case DELETED -> reclaim(roomId, entry);
+                    case COMPLETED, ABANDONED -> {
+                        if (age >= finishedRetention.toNanos()) {
+                            reclaim(roomId, entry);
+                        }
+                    }
+                    case LOBBY -> {
+                        // Someone still sitting in the lobby counts as activity
+                        if (age >= lobbyTtl.toNanos() && !presenceRegistry.isEmpty(roomId)) {
+                            roomLifecycle.touched(roomId);
+                        } else if (age >= lobbyTtl.toNanos()) {
+                            roomLifecycle.abandoned(roomId);
+                        }
+                    }
+                    case PLAYING -> {
+                    }
+                }
+            });
+            releaseOrphans();
+            int codes = roomIdAndCodeMapper.reclaimExpired();
+            if (codes > 0) {
+                meterRegistry.counter("pokeverse.rooms.reclaimed", "resource", "expired_code").increment(codes);
+            }
+        } catch (Exception e) {
+            log.error("Room janitor sweep failed: {}", e.getMessage());
+        } finally {
+            scheduleSweep();
+        }
+    }
+
+    private void reclaim(long roomId, RoomLifecycle.Entry entry) {
+        // An abandoned lobby may have been started since the sweep looked at it
+        if (roomLifecycle.stateOf(roomId) != entry.state()) {
+            return;
+        }
+        boolean rowGone = entry.state() == RoomLifecycleState.DELETED || !roomRepository.existsById(roomId);
+        if (entry.code() != null && rowGone) {
+            roomIdAndCodeMapper.releaseCode(entry.code(), roomId);
+            reclaimed("code");
+        }
+        redisCacheService.delete(ROOM_CACHE_PREFIX, roomId);
+        roomEventService.forget(roomId);
+        reclaimed("cache");
+        chatHistory.remove(roomId);
+        releaseEngine(roomId);
+        roomLifecycle.remove(roomId);
+        meterRegistry.counter("pokeverse.rooms.reclaimed.rooms", "state", entry.state().name().toLowerCase()).increment();
+        log.debug("Reclaimed room {} ({})", roomId, entry.state());
+    }
+
+    // Games still held in memory although their room has no live lifecycle entry
+    private void releaseOrphans() {
+        for (RoomState state : roomStateRegistry.all()) {
+            RoomLifecycleState lifecycle = roomLifecycle.stateOf(state.getRoomId());
+            if (!state.isInProgress() || (lifecycle != null && lifecycle.isTerminal())) {
+                releaseEngine(state.getRoomId());
+            }
+        }
+    }
+
+    // Timer, mailbox and RoomState are owned by the room's mailbox, so they are released from it
+    private void releaseEngine(long roomId) {
+        roomMailboxes.dispatch(roomId, () -> {
+            if (quizService.releaseRoom(roomId)) {
+                reclaimed("engine");
+            }
+        });
+    }
+
+    private void reclaimed(String resource) {
+        meterRegistry.counter("pokeverse.rooms.reclaimed", "resource", resource).increment();
+    }
+}
@@ -0,0 +1,91 @@
+package com.pokeverse.play.quiz.lifecycle;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Lifecycle state of every room this node has seen, with the code it was given and when
+ * it last changed state (or, for a lobby, last saw a join or leave). Transitions that the
+ * state machine doesn't allow are ignored, so a late "completed" can't bring a deleted room back.
+ */
+@Slf4j
+@Component
+public class RoomLifecycle {
+
+    public record Entry(Long code, RoomLifecycleState state, long sinceNanos) {
+    }
+
+    private final Map<Long, Entry> rooms = new ConcurrentHashMap<>();
+
+    public RoomLifecycle(MeterRegistry meterRegistry) {
+        for (RoomLifecycleState state : RoomLifecycleState.values()) {
+            Gauge.builder("pokeverse.rooms.lifecycle", rooms, r -> count(r, state))
+                    .tag("state", state.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    public void created(long roomId, Long code) {
+        rooms.put(roomId, new Entry(code, RoomLifecycleState.LOBBY, System.nanoTime()));
+    }
+
+    // Activity keeps a lobby from being abandoned, the clock restarts on every join and leave
+    public void touched(long roomId) {
+        rooms.computeIfPresent(roomId, (id, current) -> current.state() == RoomLifecycleState.LOBBY
+                ? new Entry(current.code(), current.state(), System.nanoTime())
+                : current);
+    }
+
+    public void playing(long roomId) {
+        moveTo(roomId, RoomLifecycleState.PLAYING);
+    }
+
+    public void completed(long roomId) {
+        moveTo(roomId, RoomLifecycleState.COMPLETED);
+    }
+
+    public void abandoned(long roomId) {
+        moveTo(roomId, RoomLifecycleState.ABANDONED);
+    }
+
+    public void deleted(long roomId) {
+        moveTo(roomId, RoomLifecycleState.DELETED);
+    }
+
+    public RoomLifecycleState stateOf(long roomId) {
+        Entry entry = rooms.get(roomId);
+        return entry == null ? null : entry.state();
+    }
+
+    public void forEach(BiConsumer<Long, Entry> action) {
+        rooms.forEach(action);
+    }
+
+    public void remove(long roomId) {
+        rooms.remove(roomId);
+    }
+
+    private void moveTo(long roomId, RoomLifecycleState next) {
+        rooms.compute(roomId, (id, current) -> {
+            // Rooms created before this node started are picked up on their first transition
+            if (current == null) {
+                return new Entry(null, next, System.nanoTime());
+            }
+            if (!current.state().canMoveTo(next)) {
+                log.debug("Ignoring room {} transition {} -> {}", roomId, current.state(), next);
+                return current;
+            }
+            return new Entry(current.code(), next, System.nanoTime());
+        });
+    }
+
+    private static double count(Map<Long, Entry> rooms, RoomLifecycleState state) {
+        return rooms.values().stream().filter(e -> e.state() == state).count();
+    }
+}
@@ -0,0 +1,30 @@
+package com.pokeverse.play.quiz.lifecycle;
+
+import java.util.Set;
+
+/**
+ * Where a room is in its life. COMPLETED, ABANDONED and DELETED are terminal: the
+ * {@link RoomJanitor} reclaims everything held for the room once it has sat in one of them
+ * long enough. An abandoned lobby still has its row, so it can be started after all.
+ */
+public enum RoomLifecycleState {
+    LOBBY,
+    PLAYING,
+    COMPLETED,
+    ABANDONED,
+    DELETED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == ABANDONED || this == DELETED;
+    }
+
+    public boolean canMoveTo(RoomLifecycleState next) {
+        return switch (this) {
+            case LOBBY -> Set.of(PLAYING, ABANDONED, DELETED).contains(next);
+            case PLAYING -> Set.of(COMPLETED, ABANDONED, DELETED).contains(next);
+            case ABANDONED -> next == PLAYING || next == DELETED;
+            case COMPLETED -> next == DELETED;
+            case DELETED -> false;
+        };
+    }
+}
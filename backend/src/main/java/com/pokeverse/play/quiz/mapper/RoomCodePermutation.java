@@ -0,0 +1,53 @@
+package com.pokeverse.play.quiz.mapper;
+
+/**
+ * Keyed bijection over [0, size): a four round Feistel network on a square domain just
+ * large enough to cover it, with cycle walking for the values that land outside. Feeding
+ * it 0, 1, 2, ... yields every value exactly once in an order that can't be guessed
+ * without the key, so consecutive rooms don't get consecutive codes.
+ */
+class RoomCodePermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final long size;
+    private final long half;
+    private final long key;
+
+    RoomCodePermutation(long size, long key) {
+        this.size = size;
+        this.half = (long) Math.ceil(Math.sqrt(size));
+        this.key = key;
+    }
+
+    long apply(long index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Index out of range: " + index);
+        }
+        // The square domain is at most ~2 * sqrt(size) larger, so this walks a step or two
+        long value = index;
+        do {
+            value = encrypt(value);
+        } while (value >= size);
+        return value;
+    }
+
+    private long encrypt(long value) {
+        long left = value / half;
+        long right = value % half;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = (left + round(right, round)) % half;
+            left = right;
+            right = next;
+        }
+        return left * half + right;
+    }
+
+    private long round(long value, int round) {
+        long h = value ^ key ^ ((long) round << 56);
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return Math.floorMod(h, half);
+    }
+}
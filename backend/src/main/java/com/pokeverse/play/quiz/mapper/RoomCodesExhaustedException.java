@@ -0,0 +1,9 @@
+package com.pokeverse.play.quiz.mapper;
+
+// No code could be handed out, every one in the space is mapped to a live room
+public class RoomCodesExhaustedException extends RuntimeException {
+
+    public RoomCodesExhaustedException(String message) {
+        super(message);
+    }
+}
@@ -1,38 +1,158 @@
 package com.pokeverse.play.quiz.mapper;
 
+import com.pokeverse.play.quiz.cache.CacheCodec;
+import com.pokeverse.play.quiz.cache.DecimalLongCodec;
 import com.pokeverse.play.quiz.service.RedisCacheService;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
-import java.util.Random;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Six digit room codes. A code comes either from the pool of released codes or, when the
+ * pool is empty, from the next index of a shared counter run through a keyed permutation,
+ * and both happen in one Lua script, so two nodes can never hand out the same code and
+ * allocation never probes. The code -> room mapping is written with SET NX as a last
+ * guard, and a released code goes back to the pool only if it still maps to its room.
+ * <p>
+ * Every handed out code also has a lease in a sorted set, scored by when its mapping
+ * expires. {@link #reclaimExpired()} returns codes whose mapping ran out of TTL without
+ * being released, so the code space doesn't drain one forgotten room at a time.
+ * <p>
+ * The scripts touch the pool, the counter, the leases and a code's mapping together, so
+ * they need a single Redis (standalone or a Sentinel-managed primary), not Cluster; see
+ * {@link com.pokeverse.play.quiz.config.RedisConfig}.
+ */
 @Component
-@RequiredArgsConstructor
 public class RoomIdAndCodeMapper {
 
-    private final RedisCacheService redisCacheService;
-    private final Random random = new Random();
     private static final String CODE_PREFIX = "room_code";
+    private static final String FREE_CODES_KEY = "room_code:free";
+    private static final String NEXT_INDEX_KEY = "room_code:next";
+    private static final String LEASES_KEY = "room_code:leases";
+    private static final long FIRST_CODE = 100_000;
+    private static final long CODE_SPACE = 900_000;
+    // Codes that were handed out before the allocator existed may still be mapped
+    private static final int MAX_ALLOCATION_ATTEMPTS = 16;
+    private static final int RECLAIM_BATCH = 500;
+
+    // Recycled codes come back as themselves, fresh counter indexes as their negation, 0 once the space is used up
+    private static final RedisScript<Long> ALLOCATE = RedisScript.of("""
+            local code = redis.call('SPOP', KEYS[1])
+            if code then
+                return tonumber(code)
+            end
+            local index = redis.call('INCR', KEYS[2])
+            if index > tonumber(ARGV[1]) then
+                return 0
+            end
+            return -index""", Long.class);
+
+    private static final RedisScript<Long> RELEASE = RedisScript.of("""
+            local owner = redis.call('GET', KEYS[1])
+            if owner and owner ~= ARGV[1] then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('ZREM', KEYS[3], ARGV[2])
+            redis.call('SADD', KEYS[2], ARGV[2])
+            return 1""", Long.class);
+
+    // A lease that is due either finds its mapping gone (the code is free again) or moves to the mapping's real expiry
+    private static final RedisScript<Long> RECLAIM = RedisScript.of("""
+            local ttl = redis.call('PTTL', KEYS[1])
+            if ttl == -2 then
+                redis.call('ZREM', KEYS[3], ARGV[1])
+                redis.call('SADD', KEYS[2], ARGV[1])
+                return 1
+            end
+            if ttl == -1 then
+                redis.call('ZREM', KEYS[3], ARGV[1])
+            else
+                redis.call('ZADD', KEYS[3], tonumber(ARGV[2]) + ttl, ARGV[1])
+            end
+            return 0""", Long.class);
+
+    private final RedisCacheService redisCacheService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RoomCodePermutation permutation;
+    private final Duration codeTtl;
+
+    public RoomIdAndCodeMapper(RedisCacheService redisCacheService,
+                               StringRedisTemplate stringRedisTemplate,
+                               @Value("${pokeverse.room-code.key:6838462118364839661}") long permutationKey,
+                               @Value("${pokeverse.room-code.ttl:24h}") Duration codeTtl) {
+        this.redisCacheService = redisCacheService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.permutation = new RoomCodePermutation(CODE_SPACE, permutationKey);
+        this.codeTtl = codeTtl;
+    }
 
     public Long getRoomIdByCode(Long code) {
-        return redisCacheService.get(CODE_PREFIX, code, Long.class).orElse(null);
+        return redisCacheService.get(CODE_PREFIX, code, DecimalLongCodec.INSTANCE).orElse(null);
+    }
+
+    // The room id and whatever is cached for it under targetPrefix, fetched together
+    public <T> Optional<RedisCacheService.Linked<T>> resolve(Long code, String targetPrefix, CacheCodec<T> codec) {
+        return redisCacheService.getLinked(CODE_PREFIX, code, targetPrefix, codec);
     }
 
     public Long assignCodeToRoom(Long roomId) {
-        Long code = generateUniqueCode();
-        redisCacheService.set(CODE_PREFIX, code, roomId);
-        return code;
+        for (int attempt = 0; attempt < MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            Long code = allocateCode();
+            // Leased before it is mapped, a code can't end up mapped without a lease
+            stringRedisTemplate.opsForZSet().add(LEASES_KEY, code.toString(),
+                    System.currentTimeMillis() + codeTtl.toMillis());
+            if (redisCacheService.setIfAbsent(CODE_PREFIX, code, roomId, DecimalLongCodec.INSTANCE, codeTtl)) {
+                return code;
+            }
+        }
+        throw new RoomCodesExhaustedException("Could not allocate a room code");
+    }
+
+    // Safe to call more than once, a code that has moved on to another room is left alone
+    public void releaseCode(Long code, Long roomId) {
+        stringRedisTemplate.execute(RELEASE,
+                List.of(CODE_PREFIX + ":" + code, FREE_CODES_KEY, LEASES_KEY),
+                roomId.toString(), code.toString());
+        redisCacheService.evictNear(CODE_PREFIX, code);
     }
 
-    private Long generateUniqueCode() {
-        Long code;
-        do {
-            code = (long) (100000 + random.nextInt(900000)); // ensures 6 digits
-        } while (getRoomIdByCode(code) != null);
-        return code;
+    // Puts codes whose mapping expired back into the pool, returns how many
+    public int reclaimExpired() {
+        long now = System.currentTimeMillis();
+        Set<String> due = stringRedisTemplate.opsForZSet().rangeByScore(LEASES_KEY, 0, now, 0, RECLAIM_BATCH);
+        if (due == null) {
+            return 0;
+        }
+        int reclaimed = 0;
+        for (String code : due) {
+            Long result = stringRedisTemplate.execute(RECLAIM,
+                    List.of(CODE_PREFIX + ":" + code, FREE_CODES_KEY, LEASES_KEY),
+                    code, Long.toString(now));
+            if (result != null && result == 1) {
+                redisCacheService.evictNear(CODE_PREFIX, Long.valueOf(code));
+                reclaimed++;
+            }
+        }
+        return reclaimed;
     }
 
-    public void deleteRoom(Long code) {
-        redisCacheService.delete(CODE_PREFIX, code);
+    private Long allocateCode() {
+        Long result = stringRedisTemplate.execute(ALLOCATE,
+                List.of(FREE_CODES_KEY, NEXT_INDEX_KEY),
+                Long.toString(CODE_SPACE));
+        if (result == null || result == 0) {
+            throw new RoomCodesExhaustedException("All room codes are in use");
+        }
+        if (result > 0) {
+            return result;
+        }
+        return FIRST_CODE + permutation.apply(-result - 1);
     }
 }
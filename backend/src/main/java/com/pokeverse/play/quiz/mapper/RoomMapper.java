@@ -2,6 +2,7 @@ package com.pokeverse.play.quiz.mapper;
 
 import com.pokeverse.play.model.Room;
 import com.pokeverse.play.model.RoomPlayer;
+import com.pokeverse.play.quiz.cache.CachedRoom;
 import com.pokeverse.play.quiz.dto.MultiplayerPlayersInRoomDto;
 import com.pokeverse.play.quiz.dto.MultiplayerRoomCreationDto;
 
@@ -26,7 +27,24 @@ public class RoomMapper {
         );
     }
 
-    private static MultiplayerPlayersInRoomDto toPlayerDto(RoomPlayer player) {
+    public static MultiplayerRoomCreationDto toDto(CachedRoom room, Long code) {
+        List<MultiplayerPlayersInRoomDto> players = room.players().stream()
+                .map(p -> new MultiplayerPlayersInRoomDto(p.id(), p.userId(), p.name(), p.avatar(), p.score()))
+                .toList();
+
+        return new MultiplayerRoomCreationDto(
+                room.id(),
+                code,
+                room.hostId(),
+                room.name(),
+                room.totalRounds(),
+                room.maxPlayers(),
+                room.status(),
+                players
+        );
+    }
+
+    public static MultiplayerPlayersInRoomDto toPlayerDto(RoomPlayer player) {
         return new MultiplayerPlayersInRoomDto(
                 player.getId(),
                 player.getUserId(),
@@ -0,0 +1,107 @@
+package com.pokeverse.play.quiz.presence;
+
+import com.pokeverse.play.quiz.engine.RoomMailboxes;
+import com.pokeverse.play.quiz.engine.RoomState;
+import com.pokeverse.play.quiz.engine.RoomStateRegistry;
+import com.pokeverse.play.quiz.engine.RoundTimer;
+import com.pokeverse.play.quiz.service.MultiplayerRoomQuizService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Every {@code sweep-interval} the games running on this node are checked against the
+ * {@link PresenceRegistry}: a room nobody has been connected to for {@code empty-room-grace}
+ * is ended, which releases its round timer, mailbox and in-memory state. The sweep advertises
+ * presence in Redis, so it runs on the reaper's own thread rather than a round worker.
+ */
+@Slf4j
+@Component
+public class EmptyRoomReaper {
+
+    private final PresenceRegistry presenceRegistry;
+    private final RoomStateRegistry roomStateRegistry;
+    private final RoomMailboxes roomMailboxes;
+    private final MultiplayerRoomQuizService quizService;
+    private final RoundTimer roundTimer;
+    private final Duration sweepInterval;
+    private final Duration emptyRoomGrace;
+
+    // roomId -> nano time since which nobody was connected, only touched by the sweep
+    private final Map<Long, Long> emptySince = new ConcurrentHashMap<>();
+    private final Counter reapedRooms;
+    private final ExecutorService sweeper =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("empty-room-reaper").factory());
+
+    public EmptyRoomReaper(PresenceRegistry presenceRegistry,
+                           RoomStateRegistry roomStateRegistry,
+                           RoomMailboxes roomMailboxes,
+                           MultiplayerRoomQuizService quizService,
+                           RoundTimer roundTimer,
+                           MeterRegistry meterRegistry,
+                           @Value("${pokeverse.presence.sweep-interval:10s}") Duration sweepInterval,
+                           @Value("${pokeverse.presence.empty-room-grace:30s}") Duration emptyRoomGrace) {
+        this.presenceRegistry = presenceRegistry;
+        this.roomStateRegistry = roomStateRegistry;
+        this.roomMailboxes = roomMailboxes;
+        this.quizService = quizService;
+        this.roundTimer = roundTimer;
+        this.sweepInterval = sweepInterval;
+        this.emptyRoomGrace = emptyRoomGrace;
+        this.reapedRooms = meterRegistry.counter("pokeverse.presence.reaped");
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduleSweep();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdown();
+    }
+
+    private void scheduleSweep() {
+        roundTimer.schedule(() -> sweeper.execute(this::sweep), sweepInterval);
+    }
+
+    private void sweep() {
+        try {
+            presenceRegistry.advertise();
+            reapEmptyRooms();
+        } catch (Exception e) {
+            log.error("Presence sweep failed: {}", e.getMessage());
+        } finally {
+            scheduleSweep();
+        }
+    }
+
+    private void reapEmptyRooms() {
+        long now = System.nanoTime();
+        emptySince.keySet().removeIf(roomId -> roomStateRegistry.get(roomId) == null);
+        for (RoomState state : roomStateRegistry.all()) {
+            long roomId = state.getRoomId();
+            if (!state.isInProgress() || !presenceRegistry.isEmpty(roomId)) {
+                emptySince.remove(roomId);
+                continue;
+            }
+            long since = emptySince.computeIfAbsent(roomId, id -> now);
+            if (now - since >= emptyRoomGrace.toNanos()) {
+                emptySince.remove(roomId);
+                reapedRooms.increment();
+                log.info("Ending room {}: no connected players for {}", roomId, emptyRoomGrace);
+                roomMailboxes.dispatch(roomId, () -> quizService.abandonGame(roomId));
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.pokeverse.play.quiz.presence;
+
+import com.pokeverse.play.quiz.fanout.RoomFanout;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Which STOMP sessions are connected, which user each belongs to and which rooms they are
+ * subscribed to. Sessions that stop heartbeating are closed by the broker and arrive here
+ * as a disconnect, so the registry only ever holds live sockets. Rooms nobody is connected
+ * to are ended by the {@link EmptyRoomReaper}.
+ * <p>
+ * With a distributed fan-out, nodes also advertise the rooms they hold sessions for in
+ * Redis on every reaper sweep, so a room only counts as empty when no node sees anyone.
+ */
+@Component
+public class PresenceRegistry {
+
+    public static final String USER_ID_HEADER = "x-user-id";
+    private static final Pattern ROOM_TOPIC = Pattern.compile("^/topic/room/(\\d+)/.+$");
+    private static final Pattern PLAYER_TOPIC = Pattern.compile("^/topic/player/(\\d+)/.+$");
+    private static final String REMOTE_PRESENCE_PREFIX = "pokeverse:presence:room:";
+
+    private final RoomFanout roomFanout;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration sweepInterval;
+    private final Duration emptyRoomGrace;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, SessionPresence> sessions = new ConcurrentHashMap<>();
+    // roomId -> sessions subscribed to any of the room's topics
+    private final Map<Long, Set<String>> roomSessions = new ConcurrentHashMap<>();
+
+    public PresenceRegistry(RoomFanout roomFanout,
+                            RedisTemplate<String, Object> redisTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${pokeverse.presence.sweep-interval:10s}") Duration sweepInterval,
+                            @Value("${pokeverse.presence.empty-room-grace:30s}") Duration emptyRoomGrace) {
+        this.roomFanout = roomFanout;
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.sweepInterval = sweepInterval;
+        this.emptyRoomGrace = emptyRoomGrace;
+
+        Gauge.builder("pokeverse.presence.sessions", sessions, Map::size).register(meterRegistry);
+        Gauge.builder("pokeverse.presence.rooms", roomSessions, Map::size).register(meterRegistry);
+    }
+
+    public int connectedSessions() {
+        return sessions.size();
+    }
+
+    public int connectedSessions(long roomId) {
+        Set<String> ids = roomSessions.get(roomId);
+        return ids == null ? 0 : ids.size();
+    }
+
+    // Distinct users behind the room's sessions, a user with two tabs counts once
+    public int connectedUsers(long roomId) {
+        Set<String> ids = roomSessions.get(roomId);
+        if (ids == null) {
+            return 0;
+        }
+        return (int) ids.stream()
+                .map(sessions::get)
+                .filter(presence -> presence != null && presence.userId() != null)
+                .map(SessionPresence::userId)
+                .distinct()
+                .count();
+    }
+
+    // Whether one of the user's sessions on this node is subscribed to the room
+    public boolean isConnected(long roomId, long userId) {
+        Set<String> ids = roomSessions.get(roomId);
+        if (ids == null) {
+            return false;
+        }
+        for (String id : ids) {
+            SessionPresence presence = sessions.get(id);
+            if (presence != null && presence.userId() != null && presence.userId() == userId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Only sessions on this node are known by user, other nodes are seen per room
+    public boolean tracksUsersOfAllNodes() {
+        return !roomFanout.isDistributed();
+    }
+
+    // Nobody on this node and, with a distributed fan-out, no other node either
+    public boolean isEmpty(long roomId) {
+        return connectedSessions(roomId) == 0 && !connectedElsewhere(roomId);
+    }
+
+    // Refreshes this node's entry for every room it holds sessions for
+    void advertise() {
+        if (!roomFanout.isDistributed()) {
+            return;
+        }
+        double now = System.currentTimeMillis();
+        for (Long roomId : roomSessions.keySet()) {
+            String key = REMOTE_PRESENCE_PREFIX + roomId;
+            redisTemplate.opsForZSet().add(key, nodeId, now);
+            redisTemplate.expire(key, emptyRoomGrace.plus(sweepInterval.multipliedBy(3)));
+        }
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() == null) {
+            return;
+        }
+        sessions.put(accessor.getSessionId(), new SessionPresence(parseId(accessor.getFirstNativeHeader(USER_ID_HEADER))));
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        SessionPresence presence = accessor.getSessionId() == null ? null : sessions.get(accessor.getSessionId());
+        if (presence == null || destination == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Matcher room = ROOM_TOPIC.matcher(destination);
+        if (room.matches()) {
+            long roomId = Long.parseLong(room.group(1));
+            presence.subscriptions().put(accessor.getSubscriptionId(), roomId);
+            roomSessions.computeIfAbsent(roomId, id -> ConcurrentHashMap.newKeySet()).add(accessor.getSessionId());
+            return;
+        }
+        // Clients that don't send the user header still identify themselves by their player topic
+        Matcher player = PLAYER_TOPIC.matcher(destination);
+        if (player.matches() && presence.userId() == null) {
+            sessions.computeIfPresent(accessor.getSessionId(),
+                    (id, current) -> current.withUserId(Long.parseLong(player.group(1))));
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        SessionPresence presence = accessor.getSessionId() == null ? null : sessions.get(accessor.getSessionId());
+        if (presence == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Long roomId = presence.subscriptions().remove(accessor.getSubscriptionId());
+        if (roomId != null && !presence.subscriptions().containsValue(roomId)) {
+            leaveRoom(roomId, accessor.getSessionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionPresence presence = sessions.remove(event.getSessionId());
+        if (presence != null) {
+            presence.subscriptions().values().stream()
+                    .distinct()
+                    .forEach(roomId -> leaveRoom(roomId, event.getSessionId()));
+        }
+    }
+
+    private void leaveRoom(long roomId, String sessionId) {
+        roomSessions.computeIfPresent(roomId, (id, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+        eventPublisher.publishEvent(new RoomPresenceChanged(roomId));
+    }
+
+    private boolean connectedElsewhere(long roomId) {
+        if (!roomFanout.isDistributed()) {
+            return false;
+        }
+        String key = REMOTE_PRESENCE_PREFIX + roomId;
+        // Nobody is here any more, only other nodes can keep the room alive
+        redisTemplate.opsForZSet().remove(key, nodeId);
+        // A node that stopped refreshing for three sweeps is gone
+        double stale = System.currentTimeMillis() - sweepInterval.multipliedBy(3).toMillis();
+        redisTemplate.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, stale);
+        Long nodes = redisTemplate.opsForZSet().zCard(key);
+        return nodes != null && nodes > 0;
+    }
+
+    private static Long parseId(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.pokeverse.play.quiz.presence;
+
+// Published when a session stops listening to a room, whoever it belonged to may be gone
+public record RoomPresenceChanged(long roomId) {
+}
@@ -0,0 +1,16 @@
+package com.pokeverse.play.quiz.presence;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One connected STOMP session: its user, once known, and subscriptionId -> roomId
+record SessionPresence(Long userId, Map<String, Long> subscriptions) {
+
+    SessionPresence(Long userId) {
+        this(userId, new ConcurrentHashMap<>());
+    }
+
+    SessionPresence withUserId(Long userId) {
+        return new SessionPresence(userId, subscriptions);
+    }
+}
@@ -0,0 +1,53 @@
+package com.pokeverse.play.quiz.service;
+
+import com.pokeverse.play.model.ChatMessage;
+import com.pokeverse.play.quiz.chat.ChatHistory;
+import com.pokeverse.play.quiz.dto.ChatHistoryDto;
+import com.pokeverse.play.quiz.dto.ChatMessageDto;
+import com.pokeverse.play.quiz.utils.ErrorUtil;
+import com.pokeverse.play.repository.ChatMessageRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ChatHistoryService {
+
+    private final ChatHistory chatHistory;
+    private final ChatMessageRepository chatMessageRepository;
+    private final ErrorUtil errorUtil;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    public ResponseEntity<?> getHistory(Long roomId, Long before, int limit) {
+        if (roomId <= 0) {
+            return ResponseEntity.badRequest().body(errorUtil.sendErrorMessage("Room ID cannot be negative or zero"));
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(errorUtil.sendErrorMessage("Limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        List<ChatMessageDto> recent = chatHistory.before(roomId, before, limit);
+        List<ChatMessageDto> page = recent;
+        // Only go to the database for what has already fallen out of the ring
+        if (recent.size() < limit && chatHistory.mayHaveOlder(roomId)) {
+            Long cursor = recent.isEmpty() ? before : recent.getFirst().seq();
+            PageRequest older = PageRequest.of(0, limit - recent.size());
+            List<ChatMessage> stored = cursor == null
+                    ? chatMessageRepository.findByRoomIdOrderBySeqDesc(roomId, older)
+                    : chatMessageRepository.findByRoomIdAndSeqLessThanOrderBySeqDesc(roomId, cursor, older);
+            page = new ArrayList<>(stored.size() + recent.size());
+            for (ChatMessage message : stored.reversed()) {
+                page.add(new ChatMessageDto(message.getSeq(), message.getUserId(), message.getMsg(), message.getCreatedAt()));
+            }
+            page.addAll(recent);
+        }
+
+        Long nextCursor = page.size() == limit ? page.getFirst().seq() : null;
+        return ResponseEntity.ok(new ChatHistoryDto(page, nextCursor));
+    }
+}
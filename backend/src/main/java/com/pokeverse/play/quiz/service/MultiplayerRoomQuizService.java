@@ -1,23 +1,29 @@
 package com.pokeverse.play.quiz.service;
 
 import com.pokeverse.play.model.*;
-import com.pokeverse.play.quiz.dto.AnswerValidationDto;
-import com.pokeverse.play.quiz.dto.LeaderBoardDto;
-import com.pokeverse.play.quiz.dto.RoomQuestionDto;
+import com.pokeverse.play.quiz.cache.CachedRoom;
+import com.pokeverse.play.quiz.cache.CachedRoomCodec;
+import com.pokeverse.play.quiz.dto.*;
+import com.pokeverse.play.quiz.engine.*;
+import com.pokeverse.play.quiz.lifecycle.RoomLifecycle;
+import com.pokeverse.play.quiz.presence.PresenceRegistry;
+import com.pokeverse.play.quiz.presence.RoomPresenceChanged;
 import com.pokeverse.play.quiz.utils.ErrorUtil;
 import com.pokeverse.play.quiz.utils.WebsocketMessingUtil;
 import com.pokeverse.play.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -26,20 +32,32 @@ public class MultiplayerRoomQuizService {
 
     private final RoomRepository roomRepository;
     private final QuestionRepository questionRepository;
-    private final MultiplayerQuestionRepository multiplayerQuestionRepository;
-    private final MultiplayerAttemptRepository multiplayerAttemptRepository;
-    private final RoomPlayerRepository roomPlayerRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomStateRegistry roomStateRegistry;
+    private final RoomProjectionWriter projectionWriter;
+    private final AttemptWriteBehindQueue attemptWriteBehindQueue;
     private final ErrorUtil errorUtil;
     private final WebsocketMessingUtil websocketMessingUtil;
-    // Track active questions and schedulers per room
-    private final Map<Long, MultiplayerQuestion> activeQuestions = new ConcurrentHashMap<>();
-    private final Map<Long, ScheduledFuture<?>> roomSchedulers = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(10);
+    private final RoundTimer roundTimer;
+    private final RoomMailboxes roomMailboxes;
+    private final RoomEventService roomEventService;
+    private final AnswerScoring answerScoring;
+    private final RoomLifecycle roomLifecycle;
+    private final PresenceRegistry presenceRegistry;
+    private final RedisCacheService redisCacheService;
+    // Track the pending round deadline per room, the game state itself lives in RoomStateRegistry
+    private final Map<Long, RoundTimer.Timeout> roomSchedulers = new ConcurrentHashMap<>();
 
     private static final int QUESTION_INTERVAL_SECONDS = 30;
+    private static final Duration QUESTION_INTERVAL = Duration.ofSeconds(QUESTION_INTERVAL_SECONDS);
+    private static final int LEADERBOARD_TOP_SIZE = 10;
+    private static final String SCORES_DESTINATION = "/scores";
+    private static final String ROOM_CACHE_PREFIX = "room";
 
-    @Transactional
+    // How long a round stays open once every player has answered
+    @Value("${pokeverse.round.early-close-grace:2s}")
+    private Duration earlyCloseGrace;
+
+    @Transactional(readOnly = true)
     public void startGame(Long roomId, Long hostId) {
         Room room = roomRepository.findById(roomId).orElse(null);
 
@@ -53,7 +71,7 @@ public class MultiplayerRoomQuizService {
             return;
         }
 
-        if (room.getStatus() != Status.NOT_STARTED) {
+        if (room.getStatus() != Status.NOT_STARTED || roomStateRegistry.get(roomId) != null) {
             websocketMessingUtil.sendError(hostId, "Game already started.");
             return;
         }
@@ -63,211 +81,266 @@ public class MultiplayerRoomQuizService {
             return;
         }
 
-        // Start the game
-        room.setStatus(Status.IN_PROGRESS);
-        room.setCurrentRound(1);
-        roomRepository.save(room);
-
-        // Notify all players
-        websocketMessingUtil.notifyRoom(roomId, "/game", Map.of("roomId", roomId, "message", "Game started!"));
+        // Draw every round's question up front, rounds are then served from memory
+        List<Long> questionIds = questionRepository.findRandomIds(room.getTotalRounds());
+        if (questionIds.size() < room.getTotalRounds()) {
+            websocketMessingUtil.sendError(hostId, "Not enough questions available.");
+            return;
+        }
+        QuestionDeck deck = new QuestionDeck(questionRepository.findAllWithOptionsByIdIn(questionIds));
 
-        // Start the automated question cycle
-        startQuestionCycle(roomId);
+        // From here on the in-memory state owns the game, the row is only a projection
+        RoomState state = RoomState.from(room);
+        state.start(deck, answerScoring.maxPoints());
+        if (!roomStateRegistry.register(state)) {
+            websocketMessingUtil.sendError(hostId, "Game already started.");
+            return;
+        }
+        roomLifecycle.playing(roomId);
+        projectionWriter.projectRoomProgress(roomId, state.getStatus(), state.getCurrentRound());
+        // Joins are checked against the cached room, it has to say the game started before the row does
+        redisCacheService.set(ROOM_CACHE_PREFIX, roomId,
+                CachedRoom.from(room).withStatus(state.getStatus()), CachedRoomCodec.INSTANCE);
+
+        // The room now has a mailbox, everything that touches the game runs on it
+        roomMailboxes.dispatch(roomId, () -> {
+            websocketMessingUtil.notifyRoom(roomId, "/game", new GameStartedDto(roomId, "Game started!"));
+            startQuestionCycle(roomId);
+        });
     }
 
     private void startQuestionCycle(Long roomId) {
-        // Send first question immediately
+        // Send first question immediately, we are already on the room's mailbox
         sendNextQuestion(roomId);
+    }
 
-        // Schedule subsequent questions every 30 seconds
-        ScheduledFuture<?> scheduledTask = scheduler.scheduleAtFixedRate(
-                () -> {
-                    try {
-                        sendNextQuestion(roomId);
-                    } catch (Exception e) {
-                        log.error("Error sending question for room {}: {}", roomId, e.getMessage());
-                    }
-                },
-                QUESTION_INTERVAL_SECONDS,
-                QUESTION_INTERVAL_SECONDS,
-                TimeUnit.SECONDS
-        );
-
-        roomSchedulers.put(roomId, scheduledTask);
+    // One-shot deadline per round, re-armed every time a question goes out or a round closes early.
+    // The timer only posts the tick, the question itself is sent from the room's mailbox.
+    private void scheduleRoundDeadline(Long roomId, int roundNumber, Duration delay) {
+        RoundTimer.Timeout timeout = roundTimer.schedule(
+                () -> roomMailboxes.dispatch(roomId, () -> onRoundDeadline(roomId, roundNumber)),
+                delay);
+        RoundTimer.Timeout previous = roomSchedulers.put(roomId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
     }
 
-    @Transactional
-    public void sendNextQuestion(Long roomId) {
-        Room room = roomRepository.findById(roomId).orElse(null);
+    private void onRoundDeadline(Long roomId, int roundNumber) {
+        RoomState state = roomStateRegistry.get(roomId);
+        ActiveQuestion activeQuestion = state == null ? null : state.getActiveQuestion();
+        // A deadline that was replaced may still fire, only the current round may advance
+        if (activeQuestion != null && activeQuestion.getRoundNumber() != roundNumber) {
+            return;
+        }
+        sendNextQuestion(roomId);
+    }
 
-        if (room == null || room.getStatus() != Status.IN_PROGRESS) {
-            stopQuestionCycle(roomId);
+    // Everyone still connected has answered, no point waiting out the full timer.
+    // With a distributed fan-out players on other nodes can't be told apart, all active players count.
+    private void closeRoundIfComplete(RoomState state) {
+        ActiveQuestion activeQuestion = state.getActiveQuestion();
+        if (activeQuestion == null || activeQuestion.isClosing()) {
             return;
         }
+        long roomId = state.getRoomId();
+        boolean complete = presenceRegistry.tracksUsersOfAllNodes()
+                ? state.allAnswered(activeQuestion, userId -> presenceRegistry.isConnected(roomId, userId))
+                : state.allAnswered(activeQuestion, userId -> true);
+        if (!complete) {
+            return;
+        }
+        activeQuestion.markClosing();
+        scheduleRoundDeadline(state.getRoomId(), activeQuestion.getRoundNumber(), earlyCloseGrace);
+    }
 
-        // Check if game is complete
-        if (room.getCurrentRound() > room.getTotalRounds()) {
-            endGame(room);
+    // A player who dropped off may have been the last one the round was waiting for
+    @EventListener
+    public void onPresenceChanged(RoomPresenceChanged event) {
+        long roomId = event.roomId();
+        roomMailboxes.dispatch(roomId, () -> {
+            RoomState state = roomStateRegistry.get(roomId);
+            if (state != null && state.isInProgress()) {
+                closeRoundIfComplete(state);
+            }
+        });
+    }
+
+    public void sendNextQuestion(Long roomId) {
+        RoomState state = roomStateRegistry.get(roomId);
+
+        if (state == null || !state.isInProgress()) {
             stopQuestionCycle(roomId);
             return;
         }
 
         // Send round results before next question (except for first round)
-        if (room.getCurrentRound() > 1) {
-            MultiplayerQuestion previousQuestion = activeQuestions.get(roomId);
-            if (previousQuestion != null) {
-                sendRoundResults(room, previousQuestion);
-            }
+        ActiveQuestion previousQuestion = state.getActiveQuestion();
+        if (previousQuestion != null) {
+            sendRoundResults(state, previousQuestion);
+            sendLeaderboardUpdate(state, previousQuestion);
+            roomEventService.scores(roomId, state.scoredIn(previousQuestion));
         }
 
-        // Get random question
-        Question question = questionRepository.findRandomQuestion();
-        if (question == null) {
-            websocketMessingUtil.sendError(room.getHostId(), "No questions available.");
+        // Check if game is complete
+        if (state.isFinished()) {
+            endGame(state);
             stopQuestionCycle(roomId);
             return;
         }
 
-        // Create multiplayer question
-        MultiplayerQuestion mpQuestion = MultiplayerQuestion.builder()
-                .room(room)
-                .question(question)
-                .roundNumber(room.getCurrentRound())
-                .build();
-
-        mpQuestion = multiplayerQuestionRepository.save(mpQuestion);
-        activeQuestions.put(roomId, mpQuestion);
+        ActiveQuestion activeQuestion = state.nextRound();
+        if (activeQuestion == null) {
+            websocketMessingUtil.sendError(state.getHostId(), "No questions available.");
+            stopQuestionCycle(roomId);
+            return;
+        }
+        Question question = activeQuestion.getQuestion();
 
         // Send question to all players
         RoomQuestionDto questionDto = RoomQuestionDto.builder()
-                .questionId(mpQuestion.getId())
+                .questionId(question.getId())
                 .question(question.getQuestion())
                 .options(question.getOptions())
-                .roundNumber(room.getCurrentRound())
-                .totalRounds(room.getTotalRounds())
+                .roundNumber(activeQuestion.getRoundNumber())
+                .totalRounds(state.getTotalRounds())
                 .timeLimit(QUESTION_INTERVAL_SECONDS)
                 .build();
 
         websocketMessingUtil.notifyRoom(roomId, "/game", questionDto);
+        activeQuestion.markSent();
+        scheduleRoundDeadline(roomId, activeQuestion.getRoundNumber(), QUESTION_INTERVAL);
 
-        // Move to next round
-        room.setCurrentRound(room.getCurrentRound() + 1);
-        roomRepository.save(room);
+        // Projected after the broadcast so the row carries the real send time
+        projectionWriter.projectQuestion(roomId, activeQuestion);
+        projectionWriter.projectRoomProgress(roomId, state.getStatus(), state.getCurrentRound());
     }
 
-    @Transactional
-    public void validateAnswer(AnswerValidationDto dto) {
-        MultiplayerQuestion mpQuestion = activeQuestions.get(dto.roomId());
+    public void validateAnswer(AnswerValidationDto dto, long receivedAtNanos) {
+        RoomState state = roomStateRegistry.get(dto.roomId());
+        ActiveQuestion activeQuestion = state == null ? null : state.getActiveQuestion();
 
-        if (mpQuestion == null) {
+        if (activeQuestion == null) {
             return; // Question expired or invalid
         }
 
-        RoomPlayer player = roomPlayerRepository.findByRoomIdAndUserId(dto.roomId(), dto.userId())
-                .orElse(null);
+        PlayerState player = state.findPlayer(dto.userId());
 
         if (player == null) {
             return;
         }
 
-        // Check if already answered this question
-        boolean alreadyAnswered = multiplayerAttemptRepository
-                .existsByPlayerAndMultiplayerQuestion(player, mpQuestion);
-
-        if (alreadyAnswered) {
+        // Validate answer and record it, rejects a second answer for the same round
+        boolean isCorrect = activeQuestion.isCorrect(dto.selectedOption());
+        if (!activeQuestion.recordAnswer(player.getSlot(), isCorrect)) {
             websocketMessingUtil.sendError(dto.userId(), "Already answered this question");
             return;
         }
 
-        // Validate answer
-        Question question = mpQuestion.getQuestion();
-        boolean isCorrect = question.getAnswer().equalsIgnoreCase(dto.selectedOption());
-
-        // Save attempt
-        MultiplayerAttempt attempt = MultiplayerAttempt.builder()
-                .player(player)
-                .multiplayerQuestion(mpQuestion)
-                .selectedOption(dto.selectedOption())
-                .isCorrect(isCorrect)
-                .build();
-
-        multiplayerAttemptRepository.save(attempt);
+        long latencyNanos = activeQuestion.recordLatency(receivedAtNanos);
+        int points = isCorrect ? answerScoring.points(latencyNanos, QUESTION_INTERVAL) : 0;
+        int newScore = player.getScore() + points;
 
-        // Update score if correct
+        // Persisted by the write-behind queue, the answer is acknowledged from memory
+        AttemptRecord record = new AttemptRecord(player.getPlayerId(), activeQuestion,
+                dto.selectedOption(), isCorrect, newScore, Instant.now());
+        if (!attemptWriteBehindQueue.enqueue(record)) {
+            activeQuestion.forgetAnswer(player.getSlot());
+            websocketMessingUtil.sendError(dto.userId(), "Server is busy, please answer again");
+            return;
+        }
         if (isCorrect) {
-            player.setScore(player.getScore() + 10); // 10 points per correct answer
-            roomPlayerRepository.save(player);
+            state.award(player, points);
         }
 
         // Notify player their answer was recorded
-        websocketMessingUtil.notifyRoom(dto.userId(), "/game", Map.of(
-                "isCorrect", isCorrect,
-                "newScore", player.getScore()
-        ));
+        websocketMessingUtil.sendToPlayer(dto.userId(), "/game", new AnswerResultDto(isCorrect, points, newScore, TimeUnit.NANOSECONDS.toMillis(latencyNanos)));
+
+        closeRoundIfComplete(state);
     }
 
-    private void sendRoundResults(Room room, MultiplayerQuestion question) {
-        // Get all attempts for this question
-        List<MultiplayerAttempt> attempts = multiplayerAttemptRepository
-                .findAllByMultiplayerQuestion(question);
-
-        // Get current scores
-        List<RoomPlayer> players = room.getPlayers();
-
-        // Send round results
-        Map<String, Object> results = Map.of(
-                "roundNumber", question.getRoundNumber(),
-                "correctAnswer", question.getQuestion().getAnswer(),
-                "players", players.stream()
-                        .map(p -> Map.of(
-                                "userId", p.getUserId(),
-                                "name", p.getName(),
-                                "score", p.getScore(),
-                                "answered", attempts.stream()
-                                        .anyMatch(a -> a.getPlayer().getId().equals(p.getId())),
-                                "correct", attempts.stream()
-                                        .anyMatch(a -> a.getPlayer().getId().equals(p.getId()) && a.isCorrect())
-                        ))
-                        .toList()
-        );
-
-        websocketMessingUtil.notifyRoom(room.getId(), "/game", results);
+    private void sendRoundResults(RoomState state, ActiveQuestion question) {
+        websocketMessingUtil.notifyRoom(state.getRoomId(), "/game", state.roundResults(question));
     }
 
-    private void endGame(Room room) {
-        room.setStatus(Status.COMPLETED);
-        roomRepository.save(room);
-
-        activeQuestions.remove(room.getId());
-
-        // Build leaderboard as a list of LeaderBoardDto
-        AtomicInteger rankCounter = new AtomicInteger(1);
-        List<LeaderBoardDto> leaderboard = room.getPlayers().stream()
-                .sorted(Comparator.comparingInt(RoomPlayer::getScore).reversed())
-                .map(p -> new LeaderBoardDto(
-                        rankCounter.getAndIncrement(),
-                        p.getUserId(),
-                        p.getName(),
-                        p.getScore()
-                ))
-                .toList();
-
-        websocketMessingUtil.notifyRoom(room.getId(), "/game", Map.of(
-                "message", "Game completed!",
-                "leaderboard", leaderboard
+    // Top of the table plus only the players whose rank moved this round, and the whole table on /scores
+    private void sendLeaderboardUpdate(RoomState state, ActiveQuestion question) {
+        websocketMessingUtil.notifyRoom(state.getRoomId(), "/game", new LeaderboardUpdateDto(
+                question.getRoundNumber(),
+                state.topPlayers(LEADERBOARD_TOP_SIZE),
+                state.rankChanges()
+        ));
+        websocketMessingUtil.notifyRoom(state.getRoomId(), SCORES_DESTINATION, new ScoreboardDto(
+                question.getRoundNumber(),
+                state.topPlayers(state.getPlayers().size())
         ));
     }
 
+    public void playerLeft(Long roomId, Long userId) {
+        RoomState state = roomStateRegistry.get(roomId);
+        if (state == null || !state.isInProgress()) {
+            return;
+        }
+
+        if (state.getHostId() == userId) {
+            // The room row is gone with the host, nothing left to play for
+            websocketMessingUtil.notifyRoom(roomId, "/game", new GameMessageDto("Host left, game ended."));
+            state.complete();
+            stopQuestionCycle(roomId);
+            return;
+        }
+
+        PlayerState player = state.findPlayer(userId);
+        if (player != null) {
+            state.leave(player);
+            closeRoundIfComplete(state);
+        }
+    }
+
+    // Nobody is connected to the room any more, stop spending timers and memory on it
+    public void abandonGame(Long roomId) {
+        RoomState state = roomStateRegistry.get(roomId);
+        if (state == null || !state.isInProgress()) {
+            return;
+        }
+        state.complete();
+        projectionWriter.projectRoomProgress(roomId, Status.COMPLETED, state.getCurrentRound());
+        roomLifecycle.abandoned(roomId);
+        stopQuestionCycle(roomId);
+    }
+
+    // Drops whatever the engine still holds for the room, true if there was anything
+    public boolean releaseRoom(Long roomId) {
+        RoomState state = roomStateRegistry.get(roomId);
+        boolean held = state != null || roomSchedulers.containsKey(roomId);
+        if (state != null && state.isInProgress()) {
+            state.complete();
+        }
+        stopQuestionCycle(roomId);
+        return held;
+    }
+
+    private void endGame(RoomState state) {
+        state.complete();
+        projectionWriter.projectRoomProgress(state.getRoomId(), Status.COMPLETED, state.getCurrentRound());
+        roomLifecycle.completed(state.getRoomId());
+
+        // Final standings straight from the incremental leaderboard, no sort
+        List<LeaderBoardDto> leaderboard = state.topPlayers(state.getPlayers().size());
+
+        websocketMessingUtil.notifyRoom(state.getRoomId(), "/game", new GameCompletedDto("Game completed!", leaderboard));
+    }
+
 
     private void stopQuestionCycle(Long roomId) {
-        ScheduledFuture<?> scheduledTask = roomSchedulers.remove(roomId);
-        if (scheduledTask != null && !scheduledTask.isCancelled()) {
-            scheduledTask.cancel(false);
+        RoundTimer.Timeout timeout = roomSchedulers.remove(roomId);
+        if (timeout != null) {
+            timeout.cancel();
         }
-        activeQuestions.remove(roomId);
+        roomStateRegistry.remove(roomId);
+        roomMailboxes.close(roomId);
     }
 
 
 
 }
-
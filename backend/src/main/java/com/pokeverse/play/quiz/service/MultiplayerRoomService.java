@@ -4,18 +4,31 @@ import com.pokeverse.play.model.Room;
 import com.pokeverse.play.model.RoomPlayer;
 import com.pokeverse.play.model.Status;
 import com.pokeverse.play.model.User;
+import com.pokeverse.play.quiz.cache.CachedRoom;
+import com.pokeverse.play.quiz.cache.CachedRoomCodec;
+import com.pokeverse.play.quiz.chat.ChatHistory;
 import com.pokeverse.play.quiz.dto.CreateMultiplayerRoomDto;
 import com.pokeverse.play.quiz.dto.MultiplayerRoomCreationDto;
+import com.pokeverse.play.quiz.dto.RoomPresenceDto;
+import com.pokeverse.play.quiz.dto.RoomSnapshotDto;
+import com.pokeverse.play.quiz.engine.RoomMailboxes;
+import com.pokeverse.play.quiz.lifecycle.RoomLifecycle;
+import com.pokeverse.play.quiz.mapper.RoomCodesExhaustedException;
 import com.pokeverse.play.quiz.mapper.RoomIdAndCodeMapper;
 import com.pokeverse.play.quiz.mapper.RoomMapper;
+import com.pokeverse.play.quiz.presence.PresenceRegistry;
+import com.pokeverse.play.quiz.service.RedisCacheService.Linked;
 import com.pokeverse.play.quiz.utils.ErrorUtil;
 import com.pokeverse.play.repository.RoomRepository;
 import com.pokeverse.play.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +39,12 @@ public class MultiplayerRoomService {
     private final RedisCacheService redisCacheService;
     private final ErrorUtil errorUtil;
     private final RoomIdAndCodeMapper roomIdAndCodeMapper;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomMailboxes roomMailboxes;
+    private final MultiplayerRoomQuizService quizService;
+    private final RoomEventService roomEventService;
+    private final ChatHistory chatHistory;
+    private final PresenceRegistry presenceRegistry;
+    private final RoomLifecycle roomLifecycle;
     private static final String ROOM_CACHE_PREFIX = "room";
 
     @Transactional
@@ -64,43 +82,79 @@ public class MultiplayerRoomService {
         room.addPlayer(hostPlayer);
 
         Room savedRoom = roomRepository.save(room);
+        Long code;
+        try {
+            code = roomIdAndCodeMapper.assignCodeToRoom(savedRoom.getId());
+        } catch (RoomCodesExhaustedException e) {
+            // Nothing can join a room without a code, don't keep the row
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(errorUtil.sendErrorMessage("No room codes available, please try again later."));
+        }
         cacheRoom(savedRoom);
-        Long code = roomIdAndCodeMapper.assignCodeToRoom(room.getId());
+        roomLifecycle.created(savedRoom.getId(), code);
         return ResponseEntity.ok(RoomMapper.toDto(savedRoom, code));
     }
 
     public ResponseEntity<?> getMultiplayerRoom(Long code) {
-        Long roomId = roomIdAndCodeMapper.getRoomIdByCode(code);
-        if (roomId == null) {
+        Linked<CachedRoom> found = findRoom(code);
+        if (found == null) {
             return errorUtil.notFound("Room not found");
         }
-        Room room = getRoomFromCacheOrDb(roomId);
+        CachedRoom room = found.value();
         if (room == null) {
             return errorUtil.notFound("Room not found.");
         }
         return ResponseEntity.ok(RoomMapper.toDto(room, code));
     }
 
-    @Transactional
-    public ResponseEntity<?> joinMultiplayerRoom(Long code, Long userId) {
+    // Lets a client that missed a membership delta start over from a versioned snapshot.
+    // The version is read before the committed roster, replaying from it can only repeat changes the roster has.
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getRoomSnapshot(Long code) {
         Long roomId = roomIdAndCodeMapper.getRoomIdByCode(code);
         if (roomId == null) {
             return errorUtil.notFound("Room not found");
         }
-        Room room = getRoomFromCacheOrDb(roomId);
+        long version = roomEventService.version(roomId);
+        Room room = roomRepository.findById(roomId).orElse(null);
         if (room == null) {
             return errorUtil.notFound("Room not found.");
         }
+        return ResponseEntity.ok(new RoomSnapshotDto(version, RoomMapper.toDto(room, code)));
+    }
 
-        if (room.getStatus() != Status.NOT_STARTED) {
+    public ResponseEntity<?> getRoomPresence(Long code) {
+        Long roomId = roomIdAndCodeMapper.getRoomIdByCode(code);
+        if (roomId == null) {
+            return errorUtil.notFound("Room not found");
+        }
+        return ResponseEntity.ok(new RoomPresenceDto(roomId,
+                presenceRegistry.connectedSessions(roomId),
+                presenceRegistry.connectedUsers(roomId)));
+    }
+
+    @Transactional
+    public ResponseEntity<?> joinMultiplayerRoom(Long code, Long userId) {
+        Linked<CachedRoom> found = findRoom(code);
+        if (found == null) {
+            return errorUtil.notFound("Room not found");
+        }
+        Long roomId = found.id();
+        CachedRoom cached = found.value();
+        if (cached == null) {
+            return errorUtil.notFound("Room not found.");
+        }
+
+        if (cached.status() != Status.NOT_STARTED) {
             return errorUtil.badRequest("Cannot join room - game already started.");
         }
 
-        if (room.isFull()) {
+        if (cached.isFull()) {
             return errorUtil.badRequest("Room is full.");
         }
 
-        if (room.hasPlayer(userId)) {
+        if (cached.hasPlayer(userId)) {
             return errorUtil.badRequest("Already in this room.");
         }
 
@@ -109,6 +163,21 @@ public class MultiplayerRoomService {
             return errorUtil.notFound("User not found.");
         }
 
+        // The cached room may be stale, the change is made on the managed entity
+        Room room = roomRepository.findById(roomId).orElse(null);
+        if (room == null) {
+            return errorUtil.notFound("Room not found.");
+        }
+        if (room.getStatus() != Status.NOT_STARTED) {
+            return errorUtil.badRequest("Cannot join room - game already started.");
+        }
+        if (room.isFull()) {
+            return errorUtil.badRequest("Room is full.");
+        }
+        if (room.hasPlayer(userId)) {
+            return errorUtil.badRequest("Already in this room.");
+        }
+
         RoomPlayer newPlayer = RoomPlayer.builder()
                 .userId(user.getId())
                 .name(user.getUsername())
@@ -117,58 +186,100 @@ public class MultiplayerRoomService {
 
         room.addPlayer(newPlayer);
         Room updatedRoom = roomRepository.save(room);
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/", updatedRoom);
-        cacheRoom(updatedRoom);
+        RoomPlayer joined = updatedRoom.getPlayers().stream()
+                .filter(p -> p.getUserId().equals(userId))
+                .findFirst()
+                .orElse(newPlayer);
+        MultiplayerRoomCreationDto dto = RoomMapper.toDto(updatedRoom, code);
+        afterCommit(() -> {
+            cacheRoom(updatedRoom);
+            roomLifecycle.touched(roomId);
+            roomEventService.joined(roomId, joined, dto);
+        });
 
-        return ResponseEntity.ok(RoomMapper.toDto(updatedRoom, code));
+        return ResponseEntity.ok(dto);
     }
 
     @Transactional
     public ResponseEntity<?> leaveRoom(Long code, Long userId) {
-        Long roomId = roomIdAndCodeMapper.getRoomIdByCode(code);
-        if (roomId == null) {
+        Linked<CachedRoom> found = findRoom(code);
+        if (found == null) {
             return errorUtil.notFound("Room not found");
         }
-        Room room = getRoomFromCacheOrDb(roomId);
-        if (room == null) {
+        Long roomId = found.id();
+        CachedRoom cached = found.value();
+        if (cached == null) {
             return errorUtil.notFound("Room not found.");
         }
 
-        RoomPlayer player = room.getPlayers().stream()
+        if (!cached.hasPlayer(userId)) {
+            return errorUtil.badRequest("Not in this room.");
+        }
+
+        // The cached room may be stale, the change is made on the managed entity
+        Room room = roomRepository.findById(roomId).orElse(null);
+        RoomPlayer player = room == null ? null : room.getPlayers().stream()
                 .filter(p -> p.getUserId().equals(userId))
                 .findFirst()
                 .orElse(null);
-
         if (player == null) {
             return errorUtil.badRequest("Not in this room.");
         }
 
+        // A running game keeps its own roster, it hears about the leave through the room's mailbox once committed
+        afterCommit(() -> roomMailboxes.dispatch(roomId, () -> quizService.playerLeft(roomId, userId)));
+
         if (room.isHost(userId)) {
             roomRepository.delete(room);
-            invalidateCache(roomId);
+            afterCommit(() -> {
+                invalidateCache(roomId);
+                roomIdAndCodeMapper.releaseCode(code, roomId);
+                chatHistory.remove(roomId);
+                roomEventService.closed(roomId);
+                // Whatever is left (timers, engine state, counters) goes with the next janitor sweep
+                roomLifecycle.deleted(roomId);
+            });
             return ResponseEntity.ok("Room deleted as host left.");
         }
 
         room.getPlayers().remove(player);
         Room updatedRoom = roomRepository.save(room);
-        cacheRoom(updatedRoom);
+        MultiplayerRoomCreationDto dto = RoomMapper.toDto(updatedRoom, code);
+        afterCommit(() -> {
+            cacheRoom(updatedRoom);
+            roomLifecycle.touched(roomId);
+            roomEventService.left(roomId, player, dto);
+        });
+
+        return ResponseEntity.ok(dto);
+    }
 
-        return ResponseEntity.ok(RoomMapper.toDto(updatedRoom, code));
+    // Code mapping and cached room in one round trip, the room is loaded from the database if it wasn't cached
+    private Linked<CachedRoom> findRoom(Long code) {
+        return roomIdAndCodeMapper.resolve(code, ROOM_CACHE_PREFIX, CachedRoomCodec.INSTANCE)
+                .map(found -> found.value() != null ? found : new Linked<>(found.id(),
+                        roomRepository.findById(found.id()).map(this::cacheRoom).orElse(null)))
+                .orElse(null);
     }
 
-    private Room getRoomFromCacheOrDb(Long roomId) {
-        return redisCacheService.get(ROOM_CACHE_PREFIX, roomId, Room.class)
-                .orElseGet(() -> {
-                    Room room = roomRepository.findById(roomId).orElse(null);
-                    if (room != null) {
-                        cacheRoom(room);
-                    }
-                    return room;
-                });
+    private CachedRoom cacheRoom(Room room) {
+        CachedRoom cached = CachedRoom.from(room);
+        redisCacheService.set(ROOM_CACHE_PREFIX, room.getId(), cached, CachedRoomCodec.INSTANCE);
+        return cached;
     }
 
-    private void cacheRoom(Room room) {
-        redisCacheService.set(ROOM_CACHE_PREFIX, room.getId(), room);
+    // Cache and delta only go out once the change is committed, a snapshot can't see one without the other
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private void invalidateCache(Long roomId) {
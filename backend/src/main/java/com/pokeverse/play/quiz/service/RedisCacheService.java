@@ -1,19 +1,98 @@
 package com.pokeverse.play.quiz.service;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.pokeverse.play.quiz.cache.CacheCodec;
+import com.pokeverse.play.quiz.cache.DecimalLongCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/**
+ * Redis-backed cache with an in-process near cache in front of it. Values under the
+ * prefixes listed in {@code pokeverse.cache.near.prefixes} are also kept in a bounded L1
+ * map for at most {@code pokeverse.cache.near.ttl}, so a hot read is a local hash lookup.
+ * Writes go to Redis, drop the local copy and publish the key on an invalidation channel
+ * every node listens on, so no node keeps serving a value another node replaced. Keys changed
+ * by a script have to go through {@link #evictNear} for the same reason.
+ * <p>
+ * A read that loads from Redis only fills the near cache if no invalidation of that key
+ * came in meanwhile; generations are striped by key hash, so an unrelated write on the
+ * same stripe at worst skips a fill.
+ * <p>
+ * Near-cached values are shared between callers and must be treated as read-only.
+ * Values with a {@link CacheCodec} are stored as the codec's bytes and near-cached decoded.
+ * {@code getLinked} follows a link key to its target in a single round trip.
+ */
+@Slf4j
 @Service
 public class RedisCacheService {
 
-    @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
-
     private static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+    private static final String INVALIDATION_CHANNEL = "pokeverse:cache:invalidate";
+    private static final int GENERATION_STRIPES = 1024;
+    // Builds the second key from the first key's value, one of the reasons the app needs a single Redis (see RedisConfig)
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GET_LINKED = RedisScript.of("""
+            local id = redis.call('GET', KEYS[1])
+            if not id then
+                return {}
+            end
+            return {id, redis.call('GET', ARGV[1] .. ':' .. id)}""", List.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, byte[]> bytesRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Set<String> nearPrefixes;
+    private final Cache<String, Object> nearCache;
+    // Bumped before every local invalidation, a fill that saw an older value is dropped
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Counter nearHits;
+    private final Counter nearMisses;
+    private final Counter invalidations;
+
+    public RedisCacheService(RedisTemplate<String, Object> redisTemplate,
+                             @Qualifier("bytesRedisTemplate") RedisTemplate<String, byte[]> bytesRedisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             MeterRegistry meterRegistry,
+                             @Value("${pokeverse.cache.near.prefixes:room,room_code}") List<String> nearPrefixes,
+                             @Value("${pokeverse.cache.near.max-size:10000}") long maxSize,
+                             @Value("${pokeverse.cache.near.ttl:30s}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.bytesRedisTemplate = bytesRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.nearPrefixes = Set.copyOf(nearPrefixes);
+        this.nearCache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.nearHits = meterRegistry.counter("pokeverse.cache.near.hits");
+        this.nearMisses = meterRegistry.counter("pokeverse.cache.near.misses");
+        this.invalidations = meterRegistry.counter("pokeverse.cache.near.invalidations");
+    }
+
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        if (!nearPrefixes.isEmpty()) {
+            listenerContainer.addMessageListener(this::onInvalidation, new ChannelTopic(INVALIDATION_CHANNEL));
+        }
+    }
 
     public <T> void set(String prefix, Long id, T object) {
         set(prefix, id, object, DEFAULT_TTL);
@@ -22,28 +101,171 @@ public class RedisCacheService {
     public <T> void set(String prefix, Long id, T object, Duration ttl) {
         String key = buildKey(prefix, id);
         redisTemplate.opsForValue().set(key, object, ttl);
+        invalidateLocal(prefix, key);
     }
 
     public <T> Optional<T> get(String prefix, Long id, Class<T> clazz) {
         String key = buildKey(prefix, id);
-        Object value = redisTemplate.opsForValue().get(key);
+        boolean near = nearPrefixes.contains(prefix);
+        Object value = near ? nearCache.getIfPresent(key) : null;
+        if (value != null) {
+            nearHits.increment();
+        } else {
+            if (near) {
+                nearMisses.increment();
+            }
+            long generation = generation(key);
+            value = redisTemplate.opsForValue().get(key);
+            if (near && value != null) {
+                putNear(key, value, generation);
+            }
+        }
         if (value != null && clazz.isInstance(value)) {
             return Optional.of(clazz.cast(value));
         }
         return Optional.empty();
     }
 
+    public <T> void set(String prefix, Long id, T value, CacheCodec<T> codec) {
+        String key = buildKey(prefix, id);
+        bytesRedisTemplate.opsForValue().set(key, codec.encode(value), DEFAULT_TTL);
+        invalidateLocal(prefix, key);
+    }
+
+    public <T> boolean setIfAbsent(String prefix, Long id, T value, CacheCodec<T> codec, Duration ttl) {
+        String key = buildKey(prefix, id);
+        boolean written = Boolean.TRUE.equals(bytesRedisTemplate.opsForValue().setIfAbsent(key, codec.encode(value), ttl));
+        if (written) {
+            invalidateLocal(prefix, key);
+        }
+        return written;
+    }
+
+    // For keys changed behind the cache's back, e.g. by a Lua script
+    public void evictNear(String prefix, Long id) {
+        invalidateLocal(prefix, buildKey(prefix, id));
+    }
+
+    public <T> Optional<T> get(String prefix, Long id, CacheCodec<T> codec) {
+        String key = buildKey(prefix, id);
+        boolean near = nearPrefixes.contains(prefix);
+        if (near) {
+            @SuppressWarnings("unchecked")
+            T cached = (T) nearCache.getIfPresent(key);
+            if (cached != null) {
+                nearHits.increment();
+                return Optional.of(cached);
+            }
+            nearMisses.increment();
+        }
+        long generation = generation(key);
+        T value = codec.decode(bytesRedisTemplate.opsForValue().get(key));
+        if (near && value != null) {
+            putNear(key, value, generation);
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Follows a {@code linkPrefix:linkId -> id} mapping written with {@link DecimalLongCodec}
+     * to the value at {@code targetPrefix:id}, in one round trip or none when both are near
+     * cached. Empty when the mapping is missing; the value is null when only the mapping exists.
+     */
+    public <T> Optional<Linked<T>> getLinked(String linkPrefix, Long linkId, String targetPrefix, CacheCodec<T> codec) {
+        String linkKey = buildKey(linkPrefix, linkId);
+        Long id = nearPrefixes.contains(linkPrefix) && nearCache.getIfPresent(linkKey) instanceof Long cached ? cached : null;
+        if (id != null) {
+            nearHits.increment();
+            return Optional.of(new Linked<>(id, get(targetPrefix, id, codec).orElse(null)));
+        }
+        if (nearPrefixes.contains(linkPrefix)) {
+            nearMisses.increment();
+        }
+
+        // The target key is only known once the script has run, so only the link is near cached here
+        long linkGeneration = generation(linkKey);
+        @SuppressWarnings("unchecked")
+        List<byte[]> result = bytesRedisTemplate.execute(GET_LINKED, List.of(linkKey),
+                targetPrefix.getBytes(StandardCharsets.UTF_8));
+        id = result == null || result.isEmpty() ? null : DecimalLongCodec.INSTANCE.decode(result.get(0));
+        if (id == null) {
+            return Optional.empty();
+        }
+        T value = result.size() > 1 ? codec.decode(result.get(1)) : null;
+        if (nearPrefixes.contains(linkPrefix)) {
+            putNear(linkKey, id, linkGeneration);
+        }
+        return Optional.of(new Linked<>(id, value));
+    }
+
     public void delete(String prefix, Long id) {
         String key = buildKey(prefix, id);
         redisTemplate.delete(key);
+        invalidateLocal(prefix, key);
+    }
+
+    // Atomic counter, starts at 1 for a new key
+    public long increment(String prefix, Long id) {
+        String key = buildKey(prefix, id);
+        Long value = redisTemplate.opsForValue().increment(key);
+        redisTemplate.expire(key, DEFAULT_TTL);
+        return value == null ? 0 : value;
+    }
+
+    // Current value of an increment() counter, 0 if it was never incremented
+    public long counter(String prefix, Long id) {
+        Object value = redisTemplate.opsForValue().get(buildKey(prefix, id));
+        return value instanceof Number number ? number.longValue() : 0;
     }
 
     public boolean exists(String prefix, Long id) {
         String key = buildKey(prefix, id);
+        if (nearPrefixes.contains(prefix) && nearCache.getIfPresent(key) != null) {
+            return true;
+        }
         return Boolean.TRUE.equals(redisTemplate.hasKey(key));
     }
 
-    private String buildKey(String prefix, Long id) {
+    // The body is the key; this node's own invalidations come back too and are harmless
+    private void onInvalidation(Message message, byte[] pattern) {
+        if (dropNear(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            invalidations.increment();
+        }
+    }
+
+    private void invalidateLocal(String prefix, String key) {
+        if (!nearPrefixes.contains(prefix)) {
+            return;
+        }
+        dropNear(key);
+        try {
+            bytesRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, key.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.error("Failed to tell other nodes to drop {}, their copy expires by TTL: {}", key, e.getMessage());
+        }
+    }
+
+    private boolean dropNear(String key) {
+        generations.incrementAndGet(stripe(key));
+        return nearCache.asMap().remove(key) != null;
+    }
+
+    private long generation(String key) {
+        return generations.get(stripe(key));
+    }
+
+    // Atomic with dropNear's remove, so a value loaded before an invalidation never lands after it
+    private void putNear(String key, Object value, long generation) {
+        nearCache.asMap().compute(key, (k, current) -> generation(k) == generation ? value : current);
+    }
+
+    private static int stripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private String buildKey(String prefix, Object id) {
         return prefix + ":" + id;
     }
-}
\ No newline at end of file
+
+    public record Linked<T>(Long id, T value) {}
+}
@@ -0,0 +1,71 @@
+package com.pokeverse.play.quiz.service;
+
+import com.pokeverse.play.model.RoomPlayer;
+import com.pokeverse.play.quiz.dto.*;
+import com.pokeverse.play.quiz.mapper.RoomMapper;
+import com.pokeverse.play.quiz.utils.WebsocketMessingUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Room membership stream on {@code /topic/room/{id}/members}. Every change gets the next
+ * version from a shared Redis counter, so versions are monotonic across nodes. A client
+ * that sees a gap fetches a {@link RoomSnapshotDto} and replays from its version.
+ * <p>
+ * Joins and leaves are also followed by the whole roster as a {@link RoomSnapshotDto} on
+ * {@code /topic/room/{id}/roster}, for clients that only want the latest state; they keep
+ * the snapshot with the highest version, so frames skipped under backpressure don't matter.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomEventService {
+
+    private final RedisCacheService redisCacheService;
+    private final WebsocketMessingUtil websocketMessingUtil;
+    private static final String VERSION_PREFIX = "room_version";
+    private static final String MEMBERS_DESTINATION = "/members";
+    private static final String ROSTER_DESTINATION = "/roster";
+
+    // Deltas go out after their transaction commits, so a roster read after this is at least this new
+    public long version(Long roomId) {
+        return redisCacheService.counter(VERSION_PREFIX, roomId);
+    }
+
+    // room is the roster as committed with the change
+    public void joined(Long roomId, RoomPlayer player, MultiplayerRoomCreationDto room) {
+        long version = publish(roomId, RoomDeltaType.JOIN, List.of(RoomMapper.toPlayerDto(player)));
+        roster(roomId, version, room);
+    }
+
+    public void left(Long roomId, RoomPlayer player, MultiplayerRoomCreationDto room) {
+        long version = publish(roomId, RoomDeltaType.LEAVE, List.of(RoomMapper.toPlayerDto(player)));
+        roster(roomId, version, room);
+    }
+
+    public void scores(Long roomId, List<MultiplayerPlayersInRoomDto> players) {
+        if (!players.isEmpty()) {
+            publish(roomId, RoomDeltaType.SCORE, players);
+        }
+    }
+
+    public void closed(Long roomId) {
+        publish(roomId, RoomDeltaType.CLOSED, List.of());
+    }
+
+    // The counter only means something while the room exists
+    public void forget(Long roomId) {
+        redisCacheService.delete(VERSION_PREFIX, roomId);
+    }
+
+    private long publish(Long roomId, RoomDeltaType type, List<MultiplayerPlayersInRoomDto> players) {
+        long version = redisCacheService.increment(VERSION_PREFIX, roomId);
+        websocketMessingUtil.notifyRoom(roomId, MEMBERS_DESTINATION, new RoomDeltaDto(roomId, version, type, players));
+        return version;
+    }
+
+    private void roster(Long roomId, long version, MultiplayerRoomCreationDto room) {
+        websocketMessingUtil.notifyRoom(roomId, ROSTER_DESTINATION, new RoomSnapshotDto(version, room));
+    }
+}
@@ -1,7 +1,7 @@
 package com.pokeverse.play.quiz.service;
 
 import com.pokeverse.play.model.*;
-import com.pokeverse.play.quiz.utils.SinglePlayerSessionCache;
+import com.pokeverse.play.quiz.cache.SinglePlayerSessionStore;
 import com.pokeverse.play.quiz.utils.ErrorUtil;
 import com.pokeverse.play.repository.SinglePlayerAnalysisRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,15 +17,15 @@ import java.util.List;
 public class SinglePlayerAnalysisService {
 
     private final SinglePlayerAnalysisRepository singlePlayerAnalysisRepository;
-    private final SinglePlayerSessionCache sessionCache;
+    private final SinglePlayerSessionStore sessionStore;
     private final ErrorUtil errorUtil;
 
     public ResponseEntity<?> getAnalysisBySessionId(Long sessionId) {
-        // ---------------------- 1. Get session from cache ----------------------
-        SinglePlayerSession session = sessionCache.get(sessionId);
+        // ---------------------- 1. Get session from the store ----------------------
+        SinglePlayerSession session = sessionStore.get(sessionId);
         if (session == null) {
             return ResponseEntity.status(404)
-                    .body(errorUtil.sendErrorMessage("Session not found in cache"));
+                    .body(errorUtil.sendErrorMessage("Session not found"));
         }
 
         List<SinglePlayerAttempts> attempts = session.getAttempts();
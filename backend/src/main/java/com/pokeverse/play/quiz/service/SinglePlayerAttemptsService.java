@@ -4,9 +4,9 @@ import com.pokeverse.play.model.Question;
 import com.pokeverse.play.model.SinglePlayerAttempts;
 import com.pokeverse.play.model.SinglePlayerSession;
 import com.pokeverse.play.model.Status;
+import com.pokeverse.play.quiz.cache.SinglePlayerSessionStore;
 import com.pokeverse.play.quiz.dto.SubmitAttemptDto;
 import com.pokeverse.play.quiz.utils.ErrorUtil;
-import com.pokeverse.play.quiz.utils.SinglePlayerSessionCache;
 import com.pokeverse.play.repository.QuestionRepository;
 import com.pokeverse.play.repository.SinglePlayerSessionRepository;
 import lombok.RequiredArgsConstructor;
@@ -20,15 +20,15 @@ public class SinglePlayerAttemptsService {
     private final ErrorUtil errorUtil;
     private final QuestionRepository questionRepository;
     private final SinglePlayerSessionRepository singlePlayerSessionRepository;
-    private final SinglePlayerSessionCache sessionCache;
+    private final SinglePlayerSessionStore sessionStore;
 
     public ResponseEntity<?> submitAttempt(SubmitAttemptDto dto) {
 
-        // ---------------------- 1. Fetch session from cache ----------------------
-        SinglePlayerSession session = sessionCache.get(dto.sessionId());
+        // ---------------------- 1. Fetch session from the store ----------------------
+        SinglePlayerSession session = sessionStore.get(dto.sessionId());
         if (session == null) {
             return ResponseEntity.status(404)
-                    .body(errorUtil.sendErrorMessage("Session not found in cache"));
+                    .body(errorUtil.sendErrorMessage("Session not found"));
         }
 
         // ---------------------- 2. Validate session status ----------------------
@@ -68,13 +68,13 @@ public class SinglePlayerAttemptsService {
         // ---------------------- 6. Increment current round ----------------------
         session.setCurrentRound(session.getCurrentRound() + 1);
 
-        // ---------------------- 7. Update session in cache ----------------------
-        sessionCache.put(session);
-
-        // ---------------------- 8. Persist attempt optionally ----------------------
-        // Optional: save attempt immediately to DB or flush later
+        // ---------------------- 7. Persist the answer ----------------------
+        // The database is the source of truth, the store only gets what it accepted
         singlePlayerSessionRepository.save(session); // saves session and cascade attempts
 
+        // ---------------------- 8. Update session in the store ----------------------
+        sessionStore.put(session);
+
         return ResponseEntity.ok(attempt);
     }
 }
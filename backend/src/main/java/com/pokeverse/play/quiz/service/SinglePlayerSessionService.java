@@ -4,9 +4,9 @@ import com.pokeverse.play.model.Question;
 import com.pokeverse.play.model.SinglePlayerAttempts;
 import com.pokeverse.play.model.SinglePlayerSession;
 import com.pokeverse.play.model.Status;
+import com.pokeverse.play.quiz.cache.SinglePlayerSessionStore;
 import com.pokeverse.play.quiz.dto.SinglePlayerSessionCreateDto;
 import com.pokeverse.play.quiz.utils.ErrorUtil;
-import com.pokeverse.play.quiz.utils.SinglePlayerSessionCache;
 import com.pokeverse.play.repository.QuestionRepository;
 import com.pokeverse.play.repository.SinglePlayerSessionRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,7 +23,7 @@ public class SinglePlayerSessionService {
 
     private final QuestionRepository questionRepository;
     private final SinglePlayerSessionRepository singlePlayerSessionRepository;
-    private final SinglePlayerSessionCache sessionCache;
+    private final SinglePlayerSessionStore sessionStore;
     private final ErrorUtil errorUtil;
 
     public ResponseEntity<?> createSinglePlayerSession(SinglePlayerSessionCreateDto dto) {
@@ -65,8 +65,8 @@ public class SinglePlayerSessionService {
         // Save session
         SinglePlayerSession savedSession = singlePlayerSessionRepository.save(session);
 
-        // Cache it if needed
-        sessionCache.put(savedSession);
+        // Keep it where every node can find it
+        sessionStore.put(savedSession);
 
         // Return the questions list to the user
         return ResponseEntity.ok(questionsList);
@@ -0,0 +1,30 @@
+package com.pokeverse.play.quiz.utils;
+
+import org.springframework.util.MimeType;
+
+/**
+ * A broadcast payload that has already been serialized. The bytes are never handed out
+ * for modification, so one instance can be sent to any number of destinations.
+ */
+public final class EncodedPayload {
+    private final byte[] bytes;
+    private final MimeType contentType;
+
+    public EncodedPayload(byte[] bytes, MimeType contentType) {
+        this.bytes = bytes;
+        this.contentType = contentType;
+    }
+
+    // Only for handing to the broker or the fan-out, callers must not modify it
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public MimeType contentType() {
+        return contentType;
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+}
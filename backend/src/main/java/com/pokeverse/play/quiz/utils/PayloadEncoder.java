@@ -0,0 +1,45 @@
+package com.pokeverse.play.quiz.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Serializes broadcast payloads once per wire format, with a writer cached per payload type
+@Component
+public class PayloadEncoder {
+
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    private final Map<WireFormat, Map<Class<?>, ObjectWriter>> writers = new EnumMap<>(WireFormat.class);
+
+    public PayloadEncoder(ObjectMapper objectMapper) {
+        mappers.put(WireFormat.JSON, objectMapper);
+        mappers.put(WireFormat.CBOR, new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule()));
+        for (WireFormat format : WireFormat.values()) {
+            writers.put(format, new ConcurrentHashMap<>());
+        }
+    }
+
+    public EncodedPayload encode(Object payload) {
+        return encode(payload, WireFormat.JSON);
+    }
+
+    public EncodedPayload encode(Object payload, WireFormat format) {
+        if (payload instanceof EncodedPayload encoded) {
+            return encoded;
+        }
+        ObjectWriter writer = writers.get(format)
+                .computeIfAbsent(payload.getClass(), type -> mappers.get(format).writerFor(type));
+        try {
+            return new EncodedPayload(writer.writeValueAsBytes(payload), format.contentType());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
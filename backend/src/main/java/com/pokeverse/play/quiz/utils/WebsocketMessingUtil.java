@@ -1,8 +1,9 @@
 package com.pokeverse.play.quiz.utils;
 
+import com.pokeverse.play.quiz.config.WireFormatInterceptor;
 import com.pokeverse.play.quiz.dto.ApiError;
+import com.pokeverse.play.quiz.fanout.RoomFanout;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -11,19 +12,44 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class WebsocketMessingUtil {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomFanout roomFanout;
+    private final PayloadEncoder payloadEncoder;
+    private final WireFormatInterceptor wireFormatInterceptor;
+
+    private static final String GAME_DESTINATION = "/game";
 
     public void notifyRoom(Long roomId, String destination, Object payload) {
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + destination, payload);
+        String topic = "/topic/room/" + roomId + destination;
+        send(topic, payloadEncoder.encode(payload));
+        if (GAME_DESTINATION.equals(destination)) {
+            sendBinaryVariants(topic, payload);
+        }
     }
 
     public void sendToPlayer(Long userId, String destination, Object payload) {
-        messagingTemplate.convertAndSend("/topic/player/" + userId + destination, payload);
+        send("/topic/player/" + userId + destination, payloadEncoder.encode(payload));
     }
 
     public void sendError(Long userId, String message) {
-        messagingTemplate.convertAndSend("/topic/player/" + userId + "/error",
-                error(message));
+        sendToPlayer(userId, "/error", error(message));
+    }
+
+    // Game events also go out once per binary format that has subscribers
+    private void sendBinaryVariants(String topic, Object payload) {
+        for (WireFormat format : WireFormat.values()) {
+            if (format == WireFormat.JSON) {
+                continue;
+            }
+            String formatTopic = topic + format.suffix();
+            if (roomFanout.isDistributed() || wireFormatInterceptor.hasBinarySubscribers(formatTopic)) {
+                send(formatTopic, payloadEncoder.encode(payload, format));
+            }
+        }
+    }
+
+    // Pre-serialized payload, the fan-out and the broker only move bytes around
+    private void send(String destination, EncodedPayload payload) {
+        roomFanout.publish(destination, payload);
     }
 
     private ApiError error(String message){
@@ -0,0 +1,35 @@
+package com.pokeverse.play.quiz.utils;
+
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Encodings a STOMP session can ask for with the {@code x-wire-format} CONNECT header.
+ * Binary subscribers to {@code /topic/room/{id}/game} are moved to the same destination
+ * plus {@link #suffix()}; everyone else gets JSON.
+ */
+public enum WireFormat {
+    JSON(MimeTypeUtils.APPLICATION_JSON, ""),
+    CBOR(new MimeType("application", "cbor"), ".cbor");
+
+    private final MimeType contentType;
+    private final String suffix;
+
+    WireFormat(MimeType contentType, String suffix) {
+        this.contentType = contentType;
+        this.suffix = suffix;
+    }
+
+    public MimeType contentType() {
+        return contentType;
+    }
+
+    public String suffix() {
+        return suffix;
+    }
+
+    // Unknown or missing values fall back to JSON
+    public static WireFormat fromHeader(String value) {
+        return value != null && value.trim().equalsIgnoreCase("cbor") ? CBOR : JSON;
+    }
+}
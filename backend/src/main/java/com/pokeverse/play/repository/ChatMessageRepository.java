@@ -1,9 +1,16 @@
 package com.pokeverse.play.repository;
 
 import com.pokeverse.play.model.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage,Long> {
+
+    List<ChatMessage> findByRoomIdAndSeqLessThanOrderBySeqDesc(Long roomId, Long seq, Pageable pageable);
+
+    List<ChatMessage> findByRoomIdOrderBySeqDesc(Long roomId, Pageable pageable);
 }
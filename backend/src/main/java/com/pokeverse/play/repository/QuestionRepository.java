@@ -22,4 +22,10 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
 
     @Query("SELECT q FROM Question q")
     List<Question> findAllLimit(@Param("limit") Integer limit);
+
+    @Query(value = "SELECT id FROM questions ORDER BY random() LIMIT :limit", nativeQuery = true)
+    List<Long> findRandomIds(@Param("limit") int limit);
+
+    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.options WHERE q.id IN :ids")
+    List<Question> findAllWithOptionsByIdIn(@Param("ids") List<Long> ids);
 }
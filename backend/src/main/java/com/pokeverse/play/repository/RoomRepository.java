@@ -1,9 +1,17 @@
 package com.pokeverse.play.repository;
 
 import com.pokeverse.play.model.Room;
+import com.pokeverse.play.model.Status;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE Room r SET r.status = :status, r.currentRound = :currentRound WHERE r.id = :roomId")
+    int updateProgress(@Param("roomId") Long roomId, @Param("status") Status status, @Param("currentRound") int currentRound);
+}
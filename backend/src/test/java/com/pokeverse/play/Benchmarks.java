@@ -0,0 +1,37 @@
+package com.pokeverse.play;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Timing and allocation harness shared by the {@code @Tag("benchmark")} tests. Runs the work
+ * for a warmup, then reports the mean time and bytes allocated per call on the calling thread.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    public record Result(long nanos, long bytes) {
+
+        public String format() {
+            return String.format("%,8d ns/op %,10d B/op", nanos, bytes);
+        }
+    }
+
+    public static Result measure(int warmup, int iterations, Supplier<?> work) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < warmup; i++) {
+            work.get();
+        }
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            work.get();
+        }
+        long nanos = (System.nanoTime() - start) / iterations;
+        long bytes = (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / iterations;
+        return new Result(nanos, bytes);
+    }
+}
@@ -0,0 +1,66 @@
+package com.pokeverse.play.quiz.cache;
+
+import com.pokeverse.play.model.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CachedRoomCodecTests {
+
+    private final CachedRoomCodec codec = CachedRoomCodec.INSTANCE;
+
+    @Test
+    void roundTripsEveryField() {
+        CachedRoom room = new CachedRoom(42, 7, "Kanto league", 10, 8, 3, Status.IN_PROGRESS, List.of(
+                new CachedRoom.Player(1, 7, "Ash", "https://cdn.pokeverse.gg/avatars/ash.png", 120),
+                new CachedRoom.Player(2, 9, "Misty", null, 0),
+                new CachedRoom.Player(3, 11, "Brock ✓", "", -5)
+        ));
+
+        assertEquals(room, codec.decode(codec.encode(room)));
+    }
+
+    @Test
+    void roundTripsAnEmptyRoster() {
+        CachedRoom room = new CachedRoom(1, 1, null, 1, 2, 0, Status.NOT_STARTED, List.of());
+
+        assertEquals(room, codec.decode(codec.encode(room)));
+    }
+
+    @Test
+    void missingOrForeignBytesDecodeToNull() {
+        assertNull(codec.decode(null));
+        assertNull(codec.decode(new byte[0]));
+
+        byte[] otherVersion = codec.encode(room());
+        otherVersion[0] = 2;
+        assertNull(codec.decode(otherVersion));
+    }
+
+    @Test
+    void truncatedBytesDecodeToNull() {
+        byte[] bytes = codec.encode(room());
+        for (int length = 1; length < bytes.length; length++) {
+            assertNull(codec.decode(Arrays.copyOf(bytes, length)), "length " + length);
+        }
+    }
+
+    @Test
+    void unknownStatusDecodesToNull() {
+        CachedRoom room = new CachedRoom(1, 1, "a", 1, 2, 0, Status.COMPLETED, List.of());
+        byte[] bytes = codec.encode(room);
+        // version, id, hostId, name (flag + length + 1 byte), three ints, then the status ordinal
+        bytes[1 + 8 + 8 + 4 + 12] = 99;
+
+        assertNull(codec.decode(bytes));
+    }
+
+    private static CachedRoom room() {
+        return new CachedRoom(5, 6, "room", 4, 4, 1, Status.IN_PROGRESS,
+                List.of(new CachedRoom.Player(1, 6, "host", "avatar", 30)));
+    }
+}
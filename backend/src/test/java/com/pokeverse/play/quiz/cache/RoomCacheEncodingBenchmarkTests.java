@@ -0,0 +1,78 @@
+package com.pokeverse.play.quiz.cache;
+
+import com.pokeverse.play.Benchmarks.Result;
+import com.pokeverse.play.model.Room;
+import com.pokeverse.play.model.RoomPlayer;
+import com.pokeverse.play.model.Status;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pokeverse.play.Benchmarks.measure;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Size and cost of one room cache entry: the Room entity through the JSON serializer the
+ * cache used to use against CachedRoom through its binary codec. The entity's players are
+ * built without their back reference, otherwise the JSON side would not terminate at all.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class RoomCacheEncodingBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomCacheEncodingBenchmarkTests.class);
+
+    private static final int PLAYERS = 50;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final CachedRoomCodec codec = CachedRoomCodec.INSTANCE;
+
+    @Test
+    void roomCacheEntry() {
+        Room room = room();
+        CachedRoom cached = CachedRoom.from(room);
+        byte[] jsonBytes = json.serialize(room);
+        byte[] binaryBytes = codec.encode(cached);
+        assertEquals(cached, codec.decode(binaryBytes));
+
+        Result jsonEncode = measure(WARMUP, ITERATIONS, () -> json.serialize(room));
+        Result jsonDecode = measure(WARMUP, ITERATIONS, () -> json.deserialize(jsonBytes));
+        Result binaryEncode = measure(WARMUP, ITERATIONS, () -> codec.encode(cached));
+        Result binaryDecode = measure(WARMUP, ITERATIONS, () -> codec.decode(binaryBytes));
+
+        log.info("room cache entry, {} players, json entity: {} B, encode {}, decode {}",
+                PLAYERS, jsonBytes.length, jsonEncode.format(), jsonDecode.format());
+        log.info("room cache entry, {} players, binary codec: {} B, encode {}, decode {}",
+                PLAYERS, binaryBytes.length, binaryEncode.format(), binaryDecode.format());
+    }
+
+    private static Room room() {
+        List<RoomPlayer> players = new ArrayList<>(PLAYERS);
+        for (long i = 0; i < PLAYERS; i++) {
+            players.add(RoomPlayer.builder()
+                    .id(i + 1)
+                    .userId(1_000 + i)
+                    .name("trainer-" + i)
+                    .avatar("https://cdn.pokeverse.gg/avatars/" + i + ".png")
+                    .score((int) i * 10)
+                    .build());
+        }
+        return Room.builder()
+                .id(42L)
+                .hostId(1_000L)
+                .name("Kanto league")
+                .totalRounds(10)
+                .maxPlayers(PLAYERS)
+                .currentRound(3)
+                .status(Status.IN_PROGRESS)
+                .players(players)
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.pokeverse.play.quiz.chat;
+
+import com.pokeverse.play.quiz.dto.ChatMessageDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatRingTests {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void appendedSeqsStayMonotonicWithinAMicrosecond() {
+        ChatRing ring = new ChatRing(4, List.of(), false);
+
+        long first = ring.append(1L, "hi", NOW).seq();
+        long second = ring.append(2L, "hey", NOW).seq();
+
+        assertEquals(first + 1, second);
+        assertEquals(List.of(first, second), seqs(ring.latest(10)));
+    }
+
+    @Test
+    void relayedMessagesAreKeptInSeqOrderOnce() {
+        ChatRing ring = new ChatRing(4, List.of(message(10), message(30)), false);
+
+        assertTrue(ring.insert(message(20)));
+        assertTrue(ring.insert(message(40)));
+        assertFalse(ring.insert(message(20)));
+
+        assertEquals(List.of(10L, 20L, 30L, 40L), seqs(ring.latest(10)));
+        assertFalse(ring.hasEvicted());
+    }
+
+    @Test
+    void aFullRingDropsItsOldestOrTheRelayedMessageIfThatIsOlder() {
+        ChatRing ring = new ChatRing(3, List.of(message(10), message(20), message(30)), false);
+
+        assertTrue(ring.insert(message(25)));
+        assertEquals(List.of(20L, 25L, 30L), seqs(ring.latest(10)));
+        assertTrue(ring.hasEvicted());
+
+        assertFalse(ring.insert(message(5)));
+        assertEquals(List.of(20L, 25L, 30L), seqs(ring.latest(10)));
+    }
+
+    @Test
+    void localMessagesSortAfterRelayedOnes() {
+        ChatRing ring = new ChatRing(4, List.of(), false);
+        long future = ring.append(1L, "first", NOW).seq() + 1_000_000;
+        ring.insert(message(future));
+
+        assertTrue(ring.append(1L, "after", NOW).seq() > future);
+    }
+
+    private static ChatMessageDto message(long seq) {
+        return new ChatMessageDto(seq, 1L, "msg " + seq, NOW);
+    }
+
+    private static List<Long> seqs(List<ChatMessageDto> messages) {
+        return messages.stream().map(ChatMessageDto::seq).toList();
+    }
+}
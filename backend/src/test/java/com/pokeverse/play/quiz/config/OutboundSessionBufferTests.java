@@ -0,0 +1,90 @@
+package com.pokeverse.play.quiz.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboundSessionBufferTests {
+
+    private static final String SCORES = "/topic/room/1/scores";
+    private static final String MEMBERS = "/topic/room/1/members";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebSocketSession session = mock(WebSocketSession.class);
+
+    @Test
+    void dropThrowsAwayFramesPastTheLimit() throws IOException {
+        OutboundSessionBuffer buffer = stalled(OutboundOverflowPolicy.DROP, 2);
+
+        buffer.sendMessage(frame(MEMBERS));
+        buffer.sendMessage(frame(MEMBERS));
+        buffer.sendMessage(frame(MEMBERS));
+
+        assertEquals(2, buffer.depth());
+        assertEquals(1, meterRegistry.counter("pokeverse.websocket.outbound.dropped").count());
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void disconnectClosesTheSessionOnceFull() throws IOException {
+        OutboundSessionBuffer buffer = stalled(OutboundOverflowPolicy.DISCONNECT, 2);
+
+        buffer.sendMessage(frame(SCORES));
+        buffer.sendMessage(frame(SCORES));
+        buffer.sendMessage(frame(SCORES));
+        buffer.sendMessage(frame(SCORES));
+
+        assertEquals(0, buffer.depth());
+        assertEquals(1, meterRegistry.counter("pokeverse.websocket.outbound.disconnected").count());
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void coalesceKeepsOnlyTheNewestWholeStateFrame() throws IOException {
+        OutboundSessionBuffer buffer = stalled(OutboundOverflowPolicy.COALESCE, 3);
+
+        buffer.sendMessage(frame(SCORES));
+        buffer.sendMessage(frame(MEMBERS));
+        buffer.sendMessage(frame(SCORES));
+        buffer.sendMessage(frame(SCORES));
+
+        // Both queued score frames make way for the incoming one, the delta stays
+        assertEquals(2, buffer.depth());
+        assertEquals(2, meterRegistry.counter("pokeverse.websocket.outbound.coalesced").count());
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void coalesceDisconnectsWhenNothingCanBeCollapsed() throws IOException {
+        OutboundSessionBuffer buffer = stalled(OutboundOverflowPolicy.COALESCE, 2);
+
+        buffer.sendMessage(frame(MEMBERS));
+        buffer.sendMessage(frame(MEMBERS));
+        buffer.sendMessage(frame(MEMBERS));
+
+        assertEquals(1, meterRegistry.counter("pokeverse.websocket.outbound.disconnected").count());
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    // The drain task never runs, so the buffer behaves like one in front of a client that stopped reading
+    private OutboundSessionBuffer stalled(OutboundOverflowPolicy policy, int limit) {
+        OutboundBufferRegistry registry = new OutboundBufferRegistry(meterRegistry, limit, policy,
+                List.of("/topic/room/*/scores", "/topic/room/*/roster"));
+        return new OutboundSessionBuffer(session, registry, task -> {
+        }, limit, policy);
+    }
+
+    private static TextMessage frame(String destination) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\n\n{}\u0000");
+    }
+}
@@ -0,0 +1,127 @@
+package com.pokeverse.play.quiz.engine;
+
+import com.pokeverse.play.model.Question;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class AttemptWriteBehindQueueTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AttemptWriteBehindQueue queue;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushesAttemptsAndTheLatestScorePerPlayerAsOneBatch() throws InterruptedException {
+        queue = start(100, 3, Duration.ofMillis(200));
+        ActiveQuestion question = question(7L);
+        queue.enqueue(new AttemptRecord(1, question, "Pikachu", true, 10, Instant.now()));
+        queue.enqueue(new AttemptRecord(2, question, "Eevee", false, 0, Instant.now()));
+        queue.enqueue(new AttemptRecord(1, question, "Pikachu", true, 25, Instant.now()));
+
+        ArgumentCaptor<List<Object[]>> attempts = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Object[]>> scores = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, timeout(2_000)).batchUpdate(startsWith("UPDATE"), scores.capture());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), attempts.capture());
+
+        assertEquals(3, attempts.getValue().size());
+        assertEquals(1, scores.getValue().size());
+        assertEquals(25, scores.getValue().get(0)[0]);
+        assertEquals(1L, scores.getValue().get(0)[1]);
+        queue.shutdown();
+        assertEquals(3, meterRegistry.counter("pokeverse.attempts.flushed").count());
+    }
+
+    @Test
+    void rejectsOnceTheQueueIsFull() {
+        // Not started, nothing drains the queue
+        queue = new AttemptWriteBehindQueue(jdbcTemplate, transactionManager, meterRegistry,
+                1, 10, Duration.ofSeconds(10), Duration.ofMillis(10));
+        ActiveQuestion question = question(7L);
+
+        assertTrue(queue.enqueue(new AttemptRecord(1, question, "Pikachu", true, 10, Instant.now())));
+        assertFalse(queue.enqueue(new AttemptRecord(2, question, "Pikachu", true, 10, Instant.now())));
+        assertEquals(1, meterRegistry.counter("pokeverse.attempts.rejected").count());
+        queue = null;
+    }
+
+    @Test
+    void aFailedBatchIsRetriedRowByRowAndOnlyFailingRowsAreDropped() throws InterruptedException {
+        doThrow(new DataIntegrityViolationException("fk"))
+                .when(jdbcTemplate).batchUpdate(startsWith("INSERT"), anyList());
+        // Player 2 left the room before the flush
+        when(jdbcTemplate.update(startsWith("INSERT"), any(Object[].class))).thenAnswer(invocation -> {
+            if (Long.valueOf(2L).equals(invocation.getArgument(1))) {
+                throw new DataIntegrityViolationException("fk");
+            }
+            return 1;
+        });
+
+        queue = start(100, 3, Duration.ofMillis(200));
+        ActiveQuestion question = question(7L);
+        queue.enqueue(new AttemptRecord(1, question, "Pikachu", true, 10, Instant.now()));
+        queue.enqueue(new AttemptRecord(2, question, "Pikachu", true, 10, Instant.now()));
+        queue.enqueue(new AttemptRecord(3, question, "Pikachu", true, 10, Instant.now()));
+        queue.shutdown();
+
+        verify(jdbcTemplate, times(3)).update(startsWith("INSERT"), any(Object[].class));
+        verify(jdbcTemplate).update(startsWith("UPDATE"), eq(10), eq(1L));
+        verify(jdbcTemplate).update(startsWith("UPDATE"), eq(10), eq(3L));
+        assertEquals(2, meterRegistry.counter("pokeverse.attempts.flushed").count());
+        assertEquals(1, meterRegistry.counter("pokeverse.attempts.failed").count());
+    }
+
+    @Test
+    void attemptsWaitForTheirQuestionRow() throws InterruptedException {
+        queue = start(100, 10, Duration.ofMillis(20));
+        ActiveQuestion question = question(null);
+        queue.enqueue(new AttemptRecord(1, question, "Pikachu", true, 10, Instant.now()));
+
+        Thread.sleep(100);
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT"), anyList());
+
+        question.setPersistedId(7L);
+        verify(jdbcTemplate, timeout(2_000)).batchUpdate(startsWith("INSERT"), anyList());
+    }
+
+    private AttemptWriteBehindQueue start(int capacity, int batchSize, Duration flushInterval) {
+        AttemptWriteBehindQueue started = new AttemptWriteBehindQueue(jdbcTemplate, transactionManager, meterRegistry,
+                capacity, batchSize, flushInterval, Duration.ofMillis(10));
+        started.start();
+        return started;
+    }
+
+    private static ActiveQuestion question(Long persistedId) {
+        Question question = Question.builder().id(1L).question("Which Pokemon is number 25?").answer("Pikachu").build();
+        ActiveQuestion active = new ActiveQuestion(1, question, 4);
+        active.setPersistedId(persistedId);
+        return active;
+    }
+}
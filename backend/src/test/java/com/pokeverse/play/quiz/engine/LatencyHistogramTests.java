@@ -0,0 +1,72 @@
+package com.pokeverse.play.quiz.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTests {
+
+    private static final long HIGHEST = 60_000_000L;
+
+    @Test
+    void valuesBelowTheFirstSplitAreExact() {
+        for (long value : new long[]{0, 1, 31, 32, 63}) {
+            assertEquals(value, single(value), "value " + value);
+        }
+    }
+
+    @Test
+    void valuesSnapToTheLowestValueOfTheirBucket() {
+        // 64..127 in buckets of 2, 128..255 in buckets of 4
+        assertEquals(64, single(64));
+        assertEquals(64, single(65));
+        assertEquals(66, single(66));
+        assertEquals(126, single(127));
+        assertEquals(128, single(128));
+        assertEquals(128, single(131));
+        assertEquals(132, single(132));
+        assertEquals(252, single(255));
+        assertEquals(256, single(256));
+    }
+
+    @Test
+    void bucketErrorStaysWithinThreePercent() {
+        for (long value = 64; value <= HIGHEST; value = value * 3 / 2 + 7) {
+            long recorded = single(value);
+            assertTrue(recorded <= value && value - recorded <= value * 0.032, "value " + value);
+        }
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram(HIGHEST);
+        histogram.record(-5);
+        histogram.record(HIGHEST * 2);
+
+        assertEquals(2, histogram.getTotalCount());
+        assertEquals(HIGHEST, histogram.getMax());
+        assertEquals(0, histogram.percentile(50));
+        assertEquals(single(HIGHEST), histogram.percentile(100));
+    }
+
+    @Test
+    void percentilesPickTheBucketHoldingTheRank() {
+        LatencyHistogram histogram = new LatencyHistogram(HIGHEST);
+        assertEquals(0, histogram.percentile(50));
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1, histogram.percentile(0));
+        assertEquals(50, histogram.percentile(50));
+        assertEquals(98, histogram.percentile(99));
+        assertEquals(100, histogram.percentile(100));
+    }
+
+    private static long single(long value) {
+        LatencyHistogram histogram = new LatencyHistogram(HIGHEST);
+        histogram.record(value);
+        return histogram.percentile(50);
+    }
+}
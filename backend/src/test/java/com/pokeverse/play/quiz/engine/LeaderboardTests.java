@@ -0,0 +1,89 @@
+package com.pokeverse.play.quiz.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeaderboardTests {
+
+    @Test
+    void tiesShareARankAndTheNextRankSkips() {
+        Leaderboard leaderboard = new Leaderboard(4, 100);
+        leaderboard.add(0, 50);
+        leaderboard.add(1, 80);
+        leaderboard.add(2, 50);
+        leaderboard.add(3, 20);
+
+        assertEquals(1, leaderboard.rank(1));
+        assertEquals(2, leaderboard.rank(0));
+        assertEquals(2, leaderboard.rank(2));
+        assertEquals(4, leaderboard.rank(3));
+    }
+
+    @Test
+    void topVisitsHighestScoresFirstWithTiesTogether() {
+        Leaderboard leaderboard = new Leaderboard(4, 100);
+        leaderboard.add(0, 50);
+        leaderboard.add(1, 80);
+        leaderboard.add(2, 50);
+        leaderboard.add(3, 20);
+
+        List<Integer> top = top(leaderboard, 4);
+        assertEquals(1, top.get(0));
+        assertEquals(Set.of(0, 2), Set.copyOf(top.subList(1, 3)));
+        assertEquals(3, top.get(3));
+    }
+
+    @Test
+    void topStopsInsideATiedBucket() {
+        Leaderboard leaderboard = new Leaderboard(3, 100);
+        leaderboard.add(0, 70);
+        leaderboard.add(1, 70);
+        leaderboard.add(2, 90);
+
+        List<Integer> top = top(leaderboard, 2);
+        assertEquals(2, top.size());
+        assertEquals(2, top.get(0));
+    }
+
+    @Test
+    void updateAndRemoveMoveTheOtherRanks() {
+        Leaderboard leaderboard = new Leaderboard(3, 100);
+        leaderboard.add(0, 10);
+        leaderboard.add(1, 20);
+        leaderboard.add(2, 30);
+
+        leaderboard.update(0, 40);
+        assertEquals(1, leaderboard.rank(0));
+        assertEquals(2, leaderboard.rank(2));
+        assertEquals(3, leaderboard.rank(1));
+
+        leaderboard.remove(2);
+        assertEquals(0, leaderboard.rank(2));
+        assertEquals(2, leaderboard.rank(1));
+        assertEquals(2, leaderboard.size());
+        assertEquals(List.of(0, 1), top(leaderboard, 3));
+    }
+
+    @Test
+    void scoresOutsideTheRangeAreClamped() {
+        Leaderboard leaderboard = new Leaderboard(3, 100);
+        leaderboard.add(0, 250);
+        leaderboard.add(1, 100);
+        leaderboard.add(2, -5);
+
+        assertEquals(1, leaderboard.rank(0));
+        assertEquals(1, leaderboard.rank(1));
+        assertEquals(3, leaderboard.rank(2));
+    }
+
+    private static List<Integer> top(Leaderboard leaderboard, int k) {
+        List<Integer> slots = new ArrayList<>();
+        leaderboard.forEachTop(k, slots::add);
+        return slots;
+    }
+}
@@ -0,0 +1,101 @@
+package com.pokeverse.play.quiz.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomMailboxTests {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void runsCommandsOneAtATimeInPostOrder() throws InterruptedException {
+        RoomMailbox mailbox = new RoomMailbox(1, executor);
+        // Only ever touched from the mailbox, no lock on purpose
+        List<Integer> seen = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        int commands = 1_000;
+
+        for (int i = 0; i < commands; i++) {
+            int command = i;
+            assertTrue(mailbox.post(() -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                seen.add(command);
+                running.decrementAndGet();
+            }));
+        }
+        mailbox.post(done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        assertEquals(IntStream.range(0, commands).boxed().toList(), seen);
+    }
+
+    @Test
+    void aFailingCommandDoesNotStopTheOnesAfterIt() throws InterruptedException {
+        RoomMailbox mailbox = new RoomMailbox(1, executor);
+        CountDownLatch done = new CountDownLatch(1);
+
+        mailbox.post(() -> {
+            throw new IllegalStateException("boom");
+        });
+        mailbox.post(done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void aClosedMailboxRejectsAndDropsCommands() throws InterruptedException {
+        // Nothing drains until the executor is released, so commands are still queued when it closes
+        CountDownLatch release = new CountDownLatch(1);
+        RoomMailbox mailbox = new RoomMailbox(1, task -> executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            task.run();
+        }));
+        AtomicInteger ran = new AtomicInteger();
+
+        assertTrue(mailbox.post(ran::incrementAndGet));
+        mailbox.close();
+        assertFalse(mailbox.post(ran::incrementAndGet));
+        release.countDown();
+
+        Thread.sleep(100);
+        assertEquals(0, ran.get());
+    }
+
+    @Test
+    void commandsForARoomWithoutAGameAreDropped() {
+        RoomMailboxes mailboxes = new RoomMailboxes(new RoomStateRegistry());
+        try {
+            assertFalse(mailboxes.dispatch(42, () -> {
+            }));
+        } finally {
+            mailboxes.shutdown();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.pokeverse.play.quiz.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RosterIndexTests {
+
+    @Test
+    void putGetAndRemove() {
+        RosterIndex index = new RosterIndex(4);
+        index.put(10, 0);
+        index.put(20, 1);
+        index.put(30, 2);
+
+        assertEquals(1, index.get(20));
+        assertEquals(-1, index.get(40));
+
+        index.put(20, 3);
+        assertEquals(3, index.get(20));
+        assertEquals(3, index.size());
+
+        index.remove(20);
+        index.remove(40);
+        assertEquals(-1, index.get(20));
+        assertEquals(0, index.get(10));
+        assertEquals(2, index.get(30));
+        assertEquals(2, index.size());
+    }
+
+    // Keys that share a home bucket sit in one probe chain; removing the head must pull the rest back
+    @Test
+    void removeShiftsTheRestOfTheProbeChainBack() {
+        List<Long> colliding = collidingKeys(4);
+        RosterIndex index = new RosterIndex(8);
+        for (int i = 0; i < colliding.size(); i++) {
+            index.put(colliding.get(i), i);
+        }
+
+        index.remove(colliding.get(0));
+        for (int i = 1; i < colliding.size(); i++) {
+            assertEquals(i, index.get(colliding.get(i)));
+        }
+
+        index.remove(colliding.get(2));
+        assertEquals(1, index.get(colliding.get(1)));
+        assertEquals(3, index.get(colliding.get(3)));
+        assertEquals(-1, index.get(colliding.get(2)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void matchesAMapUnderRandomChurn() {
+        Random random = new Random(42);
+        RosterIndex index = new RosterIndex(8);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int op = 0; op < 20_000; op++) {
+            long userId = random.nextInt(40);
+            if (random.nextBoolean() && (expected.size() < 8 || expected.containsKey(userId))) {
+                int slot = random.nextInt(8);
+                index.put(userId, slot);
+                expected.put(userId, slot);
+            } else {
+                index.remove(userId);
+                expected.remove(userId);
+            }
+            for (long id = 0; id < 40; id++) {
+                assertEquals(expected.getOrDefault(id, -1), index.get(id));
+            }
+            assertEquals(expected.size(), index.size());
+        }
+    }
+
+    // Same spreading as RosterIndex: capacity 16 for 8 expected players, keys with equal home buckets
+    private static List<Long> collidingKeys(int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long candidate = 1; keys.size() < count; candidate++) {
+            if (home(candidate) == home(1)) {
+                keys.add(candidate);
+            }
+        }
+        return keys;
+    }
+
+    private static int home(long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & 15;
+    }
+}
@@ -0,0 +1,103 @@
+package com.pokeverse.play.quiz.engine;
+
+import com.pokeverse.play.Benchmarks.Result;
+import com.pokeverse.play.model.*;
+import com.pokeverse.play.quiz.dto.PlayerRoundResultDto;
+import com.pokeverse.play.quiz.dto.RoundResultsDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.pokeverse.play.Benchmarks.measure;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Round results for a 1,000 player room: the old per-player scans over every attempt
+ * against the single pass over RoomState. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class RoundResultsBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(RoundResultsBenchmarkTests.class);
+
+    private static final int PLAYERS = 1_000;
+    private static final int ANSWERED = 800;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1_000;
+
+    @Test
+    void roundResultsForThousandPlayers() {
+        Room room = room();
+        RoomState state = RoomState.from(room);
+        state.start(new QuestionDeck(List.of(question())), 10);
+        ActiveQuestion active = state.nextRound();
+
+        MultiplayerQuestion mpQuestion = MultiplayerQuestion.builder().id(1L).question(active.getQuestion()).build();
+        List<MultiplayerAttempt> attempts = new ArrayList<>();
+        for (int i = 0; i < ANSWERED; i++) {
+            RoomPlayer player = room.getPlayers().get(i);
+            boolean correct = i % 3 == 0;
+            active.recordAnswer(state.getPlayers().get(i).getSlot(), correct);
+            attempts.add(MultiplayerAttempt.builder()
+                    .player(player)
+                    .multiplayerQuestion(mpQuestion)
+                    .selectedOption(correct ? "Pikachu" : "Eevee")
+                    .isCorrect(correct)
+                    .build());
+        }
+
+        List<Map<String, Object>> legacy = legacyResults(room.getPlayers(), attempts);
+        RoundResultsDto current = state.roundResults(active);
+        assertEquals(legacy.size(), current.players().size());
+        for (int i = 0; i < legacy.size(); i++) {
+            PlayerRoundResultDto result = current.players().get(i);
+            assertEquals(legacy.get(i).get("answered"), result.answered());
+            assertEquals(legacy.get(i).get("correct"), result.correct());
+        }
+        assertEquals(ANSWERED, current.answeredCount());
+
+        Result legacyResult = measure(WARMUP, ITERATIONS, () -> legacyResults(room.getPlayers(), attempts));
+        Result currentResult = measure(WARMUP, ITERATIONS, () -> state.roundResults(active));
+
+        log.info("round results, {} players / {} attempts: legacy {}, in-memory {} ({}x)",
+                PLAYERS, ANSWERED, legacyResult.format(), currentResult.format(),
+                String.format("%.1f", (double) legacyResult.nanos() / currentResult.nanos()));
+    }
+
+    // The pre-engine sendRoundResults, minus the query that loaded the attempts
+    private static List<Map<String, Object>> legacyResults(List<RoomPlayer> players, List<MultiplayerAttempt> attempts) {
+        return players.stream()
+                .map(p -> Map.<String, Object>of(
+                        "userId", p.getUserId(),
+                        "name", p.getName(),
+                        "score", p.getScore(),
+                        "answered", attempts.stream()
+                                .anyMatch(a -> a.getPlayer().getId().equals(p.getId())),
+                        "correct", attempts.stream()
+                                .anyMatch(a -> a.getPlayer().getId().equals(p.getId()) && a.isCorrect())
+                ))
+                .toList();
+    }
+
+    private static Room room() {
+        Room room = Room.builder().id(1L).hostId(1L).name("bench").totalRounds(1).maxPlayers(PLAYERS).build();
+        for (long i = 1; i <= PLAYERS; i++) {
+            room.addPlayer(RoomPlayer.builder().id(i).userId(i).name("player-" + i).build());
+        }
+        return room;
+    }
+
+    private static Question question() {
+        return Question.builder()
+                .id(1L)
+                .question("Which Pokemon is number 25?")
+                .answer("Pikachu")
+                .options(List.of("Pikachu", "Eevee", "Raichu", "Pichu"))
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.pokeverse.play.quiz.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoundTimerTests {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+
+    private RoundTimer timer;
+
+    @AfterEach
+    void stop() {
+        timer.shutdown();
+    }
+
+    @Test
+    void firesOnTheFirstTickAtOrAfterTheDeadline() throws InterruptedException {
+        timer = start(512);
+        CountDownLatch fired = new CountDownLatch(1);
+        long scheduledAt = System.nanoTime();
+        long[] firedAt = new long[1];
+
+        RoundTimer.Timeout timeout = timer.schedule(() -> {
+            firedAt[0] = System.nanoTime();
+            fired.countDown();
+        }, Duration.ofMillis(55));
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(firedAt[0] - scheduledAt);
+        // Never early, and late by about a tick (generous for a busy CI host)
+        assertTrue(elapsedMillis >= 55, "fired after " + elapsedMillis + "ms");
+        assertTrue(elapsedMillis < 55 + 500, "fired after " + elapsedMillis + "ms");
+        assertTrue(timeout.isExpired());
+    }
+
+    @Test
+    void aDeadlineInThePastFiresOnTheNextTick() throws InterruptedException {
+        timer = start(512);
+        CountDownLatch fired = new CountDownLatch(1);
+
+        timer.schedule(fired::countDown, Duration.ofMillis(-100));
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void deadlinesSeveralRevolutionsOutWaitForTheirRound() throws InterruptedException {
+        // Four buckets of 10ms: 15ms and 135ms both hash to bucket 1, three revolutions apart
+        timer = start(4);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch fired = new CountDownLatch(2);
+        long scheduledAt = System.nanoTime();
+        long[] farFiredAt = new long[1];
+
+        timer.schedule(() -> {
+            farFiredAt[0] = System.nanoTime();
+            order.add("far");
+            fired.countDown();
+        }, Duration.ofMillis(135));
+        timer.schedule(() -> {
+            order.add("near");
+            fired.countDown();
+        }, Duration.ofMillis(15));
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("near", "far"), order);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(farFiredAt[0] - scheduledAt);
+        assertTrue(elapsedMillis >= 135, "fired after " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void aCancelledTimeoutNeverFires() throws InterruptedException {
+        timer = start(512);
+        CountDownLatch cancelledRan = new CountDownLatch(1);
+        CountDownLatch laterRan = new CountDownLatch(1);
+
+        RoundTimer.Timeout timeout = timer.schedule(cancelledRan::countDown, Duration.ofMillis(30));
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        timer.schedule(laterRan::countDown, Duration.ofMillis(80));
+
+        assertTrue(laterRan.await(2, TimeUnit.SECONDS));
+        assertEquals(1, cancelledRan.getCount());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    void aFiredTimeoutCanNoLongerBeCancelled() throws InterruptedException {
+        timer = start(512);
+        CountDownLatch fired = new CountDownLatch(1);
+
+        RoundTimer.Timeout timeout = timer.schedule(fired::countDown, Duration.ofMillis(10));
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertFalse(timeout.cancel());
+        assertFalse(timeout.isCancelled());
+    }
+
+    private static RoundTimer start(int wheelSize) {
+        RoundTimer started = new RoundTimer(new SimpleMeterRegistry(), TICK, wheelSize, 2);
+        started.start();
+        return started;
+    }
+}
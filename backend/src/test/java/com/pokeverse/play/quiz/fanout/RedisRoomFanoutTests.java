@@ -0,0 +1,161 @@
+package com.pokeverse.play.quiz.fanout;
+
+import com.pokeverse.play.quiz.config.RedisConfig;
+import com.pokeverse.play.quiz.utils.EncodedPayload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two fan-out nodes against a real Redis started by Testcontainers, skipped when Docker
+ * isn't available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisRoomFanoutTests {
+
+    private static final String DESTINATION = "/topic/room/42/game";
+    private static final String CHANNEL = RedisRoomFanout.channelFor(DESTINATION);
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+    private final List<RedisRoomFanout> nodes = new ArrayList<>();
+    private final List<RelayedFrame> relayed = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterEach
+    void disconnect() {
+        nodes.forEach(RedisRoomFanout::shutdown);
+        containers.forEach(RedisMessageListenerContainer::stop);
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void relaysToOtherNodesWithSubscribersOnly() throws InterruptedException {
+        LocalBrokerDelivery publisherBroker = mock(LocalBrokerDelivery.class);
+        LocalBrokerDelivery subscriberBroker = mock(LocalBrokerDelivery.class);
+        LocalBrokerDelivery idleBroker = mock(LocalBrokerDelivery.class);
+        RedisRoomFanout publisher = node(publisherBroker);
+        RedisRoomFanout subscriber = node(subscriberBroker);
+        node(idleBroker);
+
+        subscriber.onSubscribe(subscribe("session-1", "sub-1", DESTINATION));
+        awaitSubscribers(1);
+        publisher.publish(DESTINATION, payload());
+
+        verify(subscriberBroker, timeout(5_000)).deliver(eq(DESTINATION), any());
+        // The publisher delivers locally once and drops its own frame when it comes back
+        verify(publisherBroker, after(500).times(1)).deliver(eq(DESTINATION), any());
+        verify(idleBroker, never()).deliver(any(), any());
+        assertEquals(1, relayed.size());
+        assertEquals(DESTINATION, relayed.get(0).destination());
+    }
+
+    @Test
+    void keepsTheChannelUntilTheLastLocalSubscriptionGoes() throws InterruptedException {
+        LocalBrokerDelivery subscriberBroker = mock(LocalBrokerDelivery.class);
+        RedisRoomFanout publisher = node(mock(LocalBrokerDelivery.class));
+        RedisRoomFanout subscriber = node(subscriberBroker);
+
+        subscriber.onSubscribe(subscribe("session-1", "sub-1", DESTINATION));
+        subscriber.onSubscribe(subscribe("session-2", "sub-1", DESTINATION));
+        awaitSubscribers(1);
+
+        subscriber.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, "session-1", "sub-1", null)));
+        publisher.publish(DESTINATION, payload());
+        verify(subscriberBroker, timeout(5_000)).deliver(eq(DESTINATION), any());
+
+        subscriber.onDisconnect(new SessionDisconnectEvent(this,
+                frame(StompCommand.DISCONNECT, "session-2", null, null), "session-2", CloseStatus.NORMAL));
+        awaitSubscribers(0);
+        publisher.publish(DESTINATION, payload());
+        verify(subscriberBroker, after(500).times(1)).deliver(eq(DESTINATION), any());
+    }
+
+    private RedisRoomFanout node(LocalBrokerDelivery broker) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+        RedisRoomFanout node = new RedisRoomFanout(broker, new RedisConfig().bytesRedisTemplate(connectionFactory), container,
+                relayed::add);
+        nodes.add(node);
+        return node;
+    }
+
+    // Subscriptions are made in the background, wait until Redis reports them
+    private void awaitSubscribers(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        long subscribers;
+        do {
+            try (RedisConnection connection = connectionFactory.getConnection()) {
+                List<?> reply = (List<?>) connection.execute("PUBSUB",
+                        "NUMSUB".getBytes(StandardCharsets.UTF_8), CHANNEL.getBytes(StandardCharsets.UTF_8));
+                subscribers = (Long) reply.get(1);
+            }
+            if (subscribers == expected) {
+                return;
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+        assertEquals(expected, subscribers, "subscribers on " + CHANNEL);
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String subscriptionId, String destination) {
+        return new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, sessionId, subscriptionId, destination));
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static EncodedPayload payload() {
+        return new EncodedPayload("{\"round\":1}".getBytes(StandardCharsets.UTF_8), MimeTypeUtils.APPLICATION_JSON);
+    }
+}
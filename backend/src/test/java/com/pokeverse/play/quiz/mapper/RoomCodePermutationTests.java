@@ -0,0 +1,49 @@
+package com.pokeverse.play.quiz.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomCodePermutationTests {
+
+    private static final long CODE_SPACE = 900_000;
+
+    @Test
+    void coversEveryCodeExactlyOnce() {
+        RoomCodePermutation permutation = new RoomCodePermutation(CODE_SPACE, 6838462118364839661L);
+        BitSet seen = new BitSet((int) CODE_SPACE);
+        for (long index = 0; index < CODE_SPACE; index++) {
+            long value = permutation.apply(index);
+            assertTrue(value >= 0 && value < CODE_SPACE, "value " + value);
+            assertFalse(seen.get((int) value), "value " + value + " repeated");
+            seen.set((int) value);
+        }
+        assertEquals(CODE_SPACE, seen.cardinality());
+    }
+
+    @Test
+    void differentKeysGiveDifferentOrders() {
+        RoomCodePermutation first = new RoomCodePermutation(CODE_SPACE, 1);
+        RoomCodePermutation second = new RoomCodePermutation(CODE_SPACE, 2);
+        int same = 0;
+        for (long index = 0; index < 1_000; index++) {
+            if (first.apply(index) == second.apply(index)) {
+                same++;
+            }
+        }
+        assertNotEquals(1_000, same);
+    }
+
+    @Test
+    void rejectsIndexesOutsideTheSpace() {
+        RoomCodePermutation permutation = new RoomCodePermutation(CODE_SPACE, 1);
+        assertThrows(IllegalArgumentException.class, () -> permutation.apply(-1));
+        assertThrows(IllegalArgumentException.class, () -> permutation.apply(CODE_SPACE));
+    }
+}
@@ -0,0 +1,77 @@
+package com.pokeverse.play.quiz.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokeverse.play.Benchmarks.Result;
+import com.pokeverse.play.quiz.dto.PlayerRoundResultDto;
+import com.pokeverse.play.quiz.dto.RoundLatencyDto;
+import com.pokeverse.play.quiz.dto.RoundResultsDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.pokeverse.play.Benchmarks.measure;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost of producing one round-results broadcast: the old Map payload through the STOMP
+ * message converter against a typed record encoded once by PayloadEncoder.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class BroadcastEncodingBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(BroadcastEncodingBenchmarkTests.class);
+
+    private static final int PLAYERS = 200;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter(objectMapper);
+    private final PayloadEncoder encoder = new PayloadEncoder(objectMapper);
+
+    @Test
+    void roundResultsBroadcast() {
+        Message<?> legacy = converter.toMessage(legacyPayload(), null);
+        EncodedPayload encoded = encoder.encode(typedPayload());
+        assertTrue(legacy != null && encoded.size() > 0);
+
+        Result legacyResult = measure(WARMUP, ITERATIONS, () -> converter.toMessage(legacyPayload(), null));
+        Result encodedResult = measure(WARMUP, ITERATIONS, () -> encoder.encode(typedPayload()));
+
+        log.info("round results broadcast, {} players: map + converter {}, record + encoder {}",
+                PLAYERS, legacyResult.format(), encodedResult.format());
+    }
+
+    // Shape of the payload sendRoundResults used to build
+    private static Map<String, Object> legacyPayload() {
+        List<Map<String, Object>> players = new ArrayList<>(PLAYERS);
+        for (long i = 0; i < PLAYERS; i++) {
+            players.add(Map.of(
+                    "userId", i,
+                    "name", "player-" + i,
+                    "score", (int) i * 10,
+                    "answered", i % 2 == 0,
+                    "correct", i % 4 == 0
+            ));
+        }
+        return Map.of("roundNumber", 3, "correctAnswer", "Pikachu", "players", players);
+    }
+
+    private static RoundResultsDto typedPayload() {
+        List<PlayerRoundResultDto> players = new ArrayList<>(PLAYERS);
+        for (long i = 0; i < PLAYERS; i++) {
+            players.add(new PlayerRoundResultDto(i, "player-" + i, (int) i * 10, i % 2 == 0, i % 4 == 0));
+        }
+        return new RoundResultsDto(3, "Pikachu", PLAYERS / 2, PLAYERS / 4, players,
+                new RoundLatencyDto(PLAYERS / 2, 850, 2400, 6100, 9800));
+    }
+}